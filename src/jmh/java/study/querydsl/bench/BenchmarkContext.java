@@ -0,0 +1,29 @@
+package study.querydsl.bench;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.querydsl.QuerydslApplication;
+
+/**
+ * 벤치마크용 스프링 컨텍스트. 인메모리 H2 를 쓰고 SQL 로그/검사 기능은 끈다.
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String name) {
+        return new SpringApplicationBuilder(QuerydslApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "decorator.datasource.enabled=false",
+                        "n-plus-one.mode=off",
+                        "lazy-load-guard.mode=off",
+                        "autocomplete.enabled=false",
+                        "logging.level.root=warn")
+                .run();
+    }
+}
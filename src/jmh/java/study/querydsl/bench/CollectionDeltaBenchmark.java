@@ -0,0 +1,109 @@
+package study.querydsl.bench;
+
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Product;
+import study.querydsl.service.CollectionDelta;
+import study.querydsl.service.MemberCollectionService;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 500 개짜리 Foods / products 에서 원소 하나를 바꿀 때, 컬렉션을 통째로 교체하는 경우와 변경분만 반영하는 경우.
+ * 호출마다 원소 하나를 넣었다 뺐다 한다.
+ */
+@State(Scope.Benchmark)
+public class CollectionDeltaBenchmark {
+
+    static final int SIZE = 500;
+
+    ConfigurableApplicationContext context;
+    EntityManager em;
+    TransactionTemplate tx;
+    MemberCollectionService service;
+    Long memberId;
+    Set<String> foods = new HashSet<>();
+    Set<String> editedFoods;
+    Set<Long> productIds = new HashSet<>();
+    Set<Long> editedProductIds;
+    boolean edited;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("collections");
+        em = context.getBean(EntityManager.class);
+        tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        service = context.getBean(MemberCollectionService.class);
+
+        List<Long> ids = new ArrayList<>();
+        memberId = tx.execute(status -> {
+            Member member = new Member("collections", 10);
+            for (int i = 0; i <= SIZE; i++) {
+                Product product = new Product();
+                em.persist(product);
+                ids.add(product.getId());
+                if (i < SIZE) {
+                    member.getProducts().add(product);
+                    member.getFoods().add("food" + i);
+                }
+            }
+            em.persist(member);
+            return member.getId();
+        });
+        for (int i = 0; i < SIZE; i++) {
+            foods.add("food" + i);
+            productIds.add(ids.get(i));
+        }
+        editedFoods = new HashSet<>(foods);
+        editedFoods.remove("food0");
+        editedFoods.add("food" + SIZE);
+        editedProductIds = new HashSet<>(productIds);
+        editedProductIds.remove(ids.get(0));
+        editedProductIds.add(ids.get(SIZE));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void foodsReplace() {
+        Set<String> next = toggle(foods, editedFoods);
+        tx.executeWithoutResult(status -> em.find(Member.class, memberId).setFoods(new HashSet<>(next)));
+    }
+
+    @Benchmark
+    public CollectionDelta foodsDelta() {
+        return service.updateFoods(memberId, toggle(foods, editedFoods));
+    }
+
+    @Benchmark
+    public void productsReplace() {
+        Set<Long> next = toggle(productIds, editedProductIds);
+        tx.executeWithoutResult(status -> {
+            Set<Product> products = new HashSet<>();
+            for (Long id : next) {
+                products.add(em.getReference(Product.class, id));
+            }
+            em.find(Member.class, memberId).setProducts(products);
+        });
+    }
+
+    @Benchmark
+    public CollectionDelta productsDelta() {
+        return service.updateProducts(memberId, toggle(productIds, editedProductIds));
+    }
+
+    private <T> Set<T> toggle(Set<T> original, Set<T> changed) {
+        edited = !edited;
+        return edited ? changed : original;
+    }
+}
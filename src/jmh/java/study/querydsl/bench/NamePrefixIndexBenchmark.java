@@ -0,0 +1,77 @@
+package study.querydsl.bench;
+
+import org.openjdk.jmh.annotations.*;
+import study.querydsl.autocomplete.NameMatch;
+import study.querydsl.autocomplete.NamePrefixIndex;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 500 만 개 이름에서 접두사로 상위 K 개를 찾는 비용. DB 없이 인덱스만 측정한다.
+ * 만든 뒤 항목당 메모리 추정치를 출력한다.
+ * delta 는 커밋된 변경이 쌓여 있는 상태 (compact 전) 를 흉내 낸다.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class NamePrefixIndexBenchmark {
+
+    static final int K = 10;
+    static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+
+    @Param({"5000000"})
+    int size;
+
+    @Param({"1", "3", "5"})
+    int prefixLength;
+
+    @Param({"0", "10000"})
+    int pendingChanges;
+
+    NamePrefixIndex index;
+    String[] prefixes = new String[1024];
+    int next;
+    long nextId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        NamePrefixIndex.Builder builder = NamePrefixIndex.builder();
+        long start = System.nanoTime();
+        // 순서 없이 넣어서 Builder 정렬까지 포함. 흔한 이름이 겹치도록 앞 글자 분포를 치우친다
+        for (long id = 1; id <= size; id++) {
+            builder.add(id, name(random));
+        }
+        index = builder.build();
+        long buildMs = (System.nanoTime() - start) / 1_000_000;
+        nextId = size + 1;
+        for (int i = 0; i < pendingChanges; i++) {
+            index.add(nextId++, name(random));
+            for (NameMatch removed : index.topK(name(random).substring(0, 3), 1)) {
+                index.remove(removed.id(), removed.name());
+            }
+        }
+        for (int i = 0; i < prefixes.length; i++) {
+            prefixes[i] = name(random).substring(0, prefixLength);
+        }
+        NamePrefixIndex.Stats stats = index.stats();
+        System.out.printf("%nname index: %d entries, %d names, %d MB, %.1f bytes/entry, built in %d ms%n",
+                stats.entries(), stats.uniqueNames(), stats.estimatedBytes() >> 20, stats.bytesPerEntry(), buildMs);
+    }
+
+    @Benchmark
+    public List<NameMatch> topK() {
+        return index.topK(prefixes[next++ & (prefixes.length - 1)], K);
+    }
+
+    private static String name(Random random) {
+        int length = 5 + random.nextInt(8);
+        StringBuilder name = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            // 앞 글자일수록 자주 나오는 글자 쪽으로 치우친다 (제곱 분포)
+            double skew = random.nextDouble();
+            name.append(LETTERS.charAt((int) (skew * skew * LETTERS.length())));
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,313 @@
+package study.querydsl.bench;
+
+import com.querydsl.core.types.dsl.CaseBuilder;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.query.NativeQuery;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.QMember;
+import study.querydsl.service.BulkLoader;
+import study.querydsl.service.BulkProgressListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.querydsl.jpa.JPAExpressions.select;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * QuerydslBasicTest 의 쿼리 모양별로 QueryDSL / JPQL / native SQL 실행 비용을 비교한다.
+ * EntityManager 는 iteration 마다 열고, 호출마다 clear 해서 영속성 컨텍스트가 쌓이지 않게 한다.
+ * (Level.Invocation 픽스처는 마이크로초 단위 측정을 왜곡한다)
+ */
+@State(Scope.Benchmark)
+public class QueryShapeBenchmark {
+
+    @Param({"1000", "10000"})
+    int dataSize;
+
+    @Param({"querydsl", "jpql", "native"})
+    String impl;
+
+    ConfigurableApplicationContext context;
+    EntityManagerFactory emf;
+    EntityManager em;
+    JPAQueryFactory queryFactory;
+    Shapes shapes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("shapes" + dataSize);
+        emf = context.getBean(EntityManagerFactory.class);
+        BulkLoader loader = context.getBean(BulkLoader.class);
+        loader.loadTeamsAndMembers(10, dataSize, 1_000, BulkProgressListener.NONE);
+        // theta join 대상: 팀 이름과 같은 이름의 회원
+        List<Member> named = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            named.add(new Member("team" + i, 100));
+        }
+        loader.persistAll(named.iterator(), BulkProgressListener.NONE);
+    }
+
+    @Setup(Level.Iteration)
+    public void openEntityManager() {
+        em = emf.createEntityManager();
+        queryFactory = new JPAQueryFactory(em);
+        shapes = switch (impl) {
+            case "querydsl" -> new QuerydslShapes(queryFactory);
+            case "jpql" -> new JpqlShapes(em);
+            case "native" -> new NativeShapes(em);
+            default -> throw new IllegalArgumentException(impl);
+        };
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeEntityManager() {
+        em.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<?> plainSelect() {
+        return cleared(shapes.plainSelect());
+    }
+
+    @Benchmark
+    public List<?> join() {
+        return cleared(shapes.join());
+    }
+
+    @Benchmark
+    public List<?> thetaJoin() {
+        return cleared(shapes.thetaJoin());
+    }
+
+    @Benchmark
+    public List<?> fetchJoin() {
+        return cleared(shapes.fetchJoin());
+    }
+
+    @Benchmark
+    public List<?> scalarSubquery() {
+        return cleared(shapes.scalarSubquery());
+    }
+
+    @Benchmark
+    public List<?> inSubquery() {
+        return cleared(shapes.inSubquery());
+    }
+
+    @Benchmark
+    public List<?> caseWhen() {
+        return cleared(shapes.caseWhen());
+    }
+
+    @Benchmark
+    public List<?> concat() {
+        return cleared(shapes.concat());
+    }
+
+    @Benchmark
+    public List<?> groupBy() {
+        return cleared(shapes.groupBy());
+    }
+
+    /**
+     * 실행 없이 QueryDSL 메타데이터를 JPQL 로 직렬화하는 비용만 측정
+     */
+    @Benchmark
+    public String buildOnly() {
+        QMember memberSub = new QMember("memberSub");
+        return queryFactory
+                .selectFrom(member)
+                .join(member.team, team)
+                .where(team.name.eq("team1"),
+                        member.age.goe(select(memberSub.age.avg()).from(memberSub)))
+                .toString();
+    }
+
+    private List<?> cleared(List<?> result) {
+        em.clear();
+        return result;
+    }
+
+    interface Shapes {
+        List<?> plainSelect();
+
+        List<?> join();
+
+        List<?> thetaJoin();
+
+        List<?> fetchJoin();
+
+        List<?> scalarSubquery();
+
+        List<?> inSubquery();
+
+        List<?> caseWhen();
+
+        List<?> concat();
+
+        List<?> groupBy();
+    }
+
+    record QuerydslShapes(JPAQueryFactory query) implements Shapes {
+        private static final QMember memberSub = new QMember("memberSub");
+
+        public List<?> plainSelect() {
+            return query.selectFrom(member).where(member.age.goe(90)).fetch();
+        }
+
+        public List<?> join() {
+            return query.selectFrom(member).innerJoin(member.team, team).where(team.name.eq("team1")).fetch();
+        }
+
+        public List<?> thetaJoin() {
+            return query.select(member).from(member, team).where(member.name.eq(team.name)).fetch();
+        }
+
+        public List<?> fetchJoin() {
+            return query.selectFrom(member).join(member.team, team).fetchJoin().where(member.age.lt(10)).fetch();
+        }
+
+        public List<?> scalarSubquery() {
+            return query.select(member.name, select(memberSub.age.avg()).from(memberSub)).from(member).fetch();
+        }
+
+        public List<?> inSubquery() {
+            return query.selectFrom(member)
+                    .where(member.age.in(select(memberSub.age).from(memberSub).where(memberSub.age.gt(90))))
+                    .fetch();
+        }
+
+        public List<?> caseWhen() {
+            return query.select(new CaseBuilder()
+                            .when(member.age.between(10, 20)).then("10~20")
+                            .when(member.age.between(21, 40)).then("21~40")
+                            .otherwise("기타"))
+                    .from(member)
+                    .fetch();
+        }
+
+        public List<?> concat() {
+            return query.select(member.name.concat("_").concat(member.age.stringValue())).from(member).fetch();
+        }
+
+        public List<?> groupBy() {
+            return query.select(team.name, member.age.avg())
+                    .from(member)
+                    .join(member.team, team)
+                    .groupBy(team.name)
+                    .fetch();
+        }
+    }
+
+    record JpqlShapes(EntityManager em) implements Shapes {
+        public List<?> plainSelect() {
+            return em.createQuery("select m from Member m where m.age >= :age", Member.class)
+                    .setParameter("age", 90).getResultList();
+        }
+
+        public List<?> join() {
+            return em.createQuery("select m from Member m join m.team t where t.name = :name", Member.class)
+                    .setParameter("name", "team1").getResultList();
+        }
+
+        public List<?> thetaJoin() {
+            return em.createQuery("select m from Member m, Team t where m.name = t.name", Member.class)
+                    .getResultList();
+        }
+
+        public List<?> fetchJoin() {
+            return em.createQuery("select m from Member m join fetch m.team where m.age < :age", Member.class)
+                    .setParameter("age", 10).getResultList();
+        }
+
+        public List<?> scalarSubquery() {
+            return em.createQuery("select m.name, (select avg(s.age) from Member s) from Member m")
+                    .getResultList();
+        }
+
+        public List<?> inSubquery() {
+            return em.createQuery("select m from Member m where m.age in (select s.age from Member s where s.age > :age)", Member.class)
+                    .setParameter("age", 90).getResultList();
+        }
+
+        public List<?> caseWhen() {
+            return em.createQuery("select case when m.age between 10 and 20 then '10~20' " +
+                            "when m.age between 21 and 40 then '21~40' else '기타' end from Member m")
+                    .getResultList();
+        }
+
+        public List<?> concat() {
+            return em.createQuery("select concat(m.name, '_', cast(m.age as String)) from Member m")
+                    .getResultList();
+        }
+
+        public List<?> groupBy() {
+            return em.createQuery("select t.name, avg(m.age) from Member m join m.team t group by t.name")
+                    .getResultList();
+        }
+    }
+
+    record NativeShapes(EntityManager em) implements Shapes {
+        public List<?> plainSelect() {
+            return em.createNativeQuery("select * from member where age >= ?", Member.class)
+                    .setParameter(1, 90).getResultList();
+        }
+
+        public List<?> join() {
+            return em.createNativeQuery("select m.* from member m join team t on m.team_id = t.team_id where t.TEAMNAME = ?", Member.class)
+                    .setParameter(1, "team1").getResultList();
+        }
+
+        public List<?> thetaJoin() {
+            return em.createNativeQuery("select m.* from member m, team t where m.USERNAME = t.TEAMNAME", Member.class)
+                    .getResultList();
+        }
+
+        public List<?> fetchJoin() {
+            // 다른 구현과 같이 Member 와 team 을 엔티티로 만든다 (행은 [Member, Team])
+            return em.createNativeQuery("select {m.*}, {t.*} from member m join team t on m.team_id = t.team_id where m.age < ?")
+                    .unwrap(NativeQuery.class)
+                    .addEntity("m", Member.class)
+                    .addJoin("t", "m.team")
+                    .setParameter(1, 10)
+                    .getResultList();
+        }
+
+        public List<?> scalarSubquery() {
+            return em.createNativeQuery("select m.USERNAME, (select avg(s.age) from member s) from member m")
+                    .getResultList();
+        }
+
+        public List<?> inSubquery() {
+            return em.createNativeQuery("select * from member where age in (select s.age from member s where s.age > ?)", Member.class)
+                    .setParameter(1, 90).getResultList();
+        }
+
+        public List<?> caseWhen() {
+            return em.createNativeQuery("select case when age between 10 and 20 then '10~20' " +
+                            "when age between 21 and 40 then '21~40' else '기타' end from member")
+                    .getResultList();
+        }
+
+        public List<?> concat() {
+            return em.createNativeQuery("select USERNAME || '_' || cast(age as varchar) from member")
+                    .getResultList();
+        }
+
+        public List<?> groupBy() {
+            return em.createNativeQuery("select t.TEAMNAME, avg(m.age) from member m join team t on m.team_id = t.team_id group by t.TEAMNAME")
+                    .getResultList();
+        }
+    }
+}
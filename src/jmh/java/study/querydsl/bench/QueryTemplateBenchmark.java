@@ -0,0 +1,100 @@
+package study.querydsl.bench;
+
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.QMember;
+import study.querydsl.query.QueryTemplate;
+import study.querydsl.service.BulkLoader;
+import study.querydsl.service.BulkProgressListener;
+
+import java.util.List;
+
+import static com.querydsl.jpa.JPAExpressions.select;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 매번 QueryDSL 쿼리를 만들고 직렬화하는 경우와 {@link QueryTemplate} 을 재사용하는 경우의 호출당 비용.
+ */
+@State(Scope.Benchmark)
+public class QueryTemplateBenchmark {
+
+    static final Param<String> TEAM_NAME = new Param<>(String.class, "teamName");
+    static final Param<Integer> MIN_AGE = new Param<>(Integer.class, "minAge");
+    static final QMember memberSub = new QMember("memberSub");
+
+    ConfigurableApplicationContext context;
+    EntityManagerFactory emf;
+    EntityManager em;
+    QueryTemplate<Member> joinTemplate;
+    QueryTemplate<Member> subQueryTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("template");
+        emf = context.getBean(EntityManagerFactory.class);
+        context.getBean(BulkLoader.class).loadTeamsAndMembers(10, 1_000, 1_000, BulkProgressListener.NONE);
+
+        JPAQueryFactory factory = new JPAQueryFactory(emf.createEntityManager());
+        joinTemplate = QueryTemplate.of(joinQuery(factory, TEAM_NAME));
+        subQueryTemplate = QueryTemplate.of(factory.selectFrom(member)
+                .where(member.age.in(select(memberSub.age).from(memberSub).where(memberSub.age.gt(MIN_AGE)))));
+    }
+
+    // 호출마다 EntityManager 를 여닫으면 측정이 왜곡되므로 iteration 단위로 열고 호출마다 clear 한다
+    @Setup(Level.Iteration)
+    public void open() {
+        em = emf.createEntityManager();
+    }
+
+    @TearDown(Level.Iteration)
+    public void close() {
+        em.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Member> joinFresh() {
+        return cleared(new JPAQueryFactory(em).selectFrom(member)
+                .innerJoin(member.team, team)
+                .where(team.name.eq("team1"))
+                .fetch());
+    }
+
+    @Benchmark
+    public List<Member> joinTemplate() {
+        return cleared(joinTemplate.bind(TEAM_NAME, "team1").fetch(em));
+    }
+
+    @Benchmark
+    public List<Member> subQueryFresh() {
+        return cleared(new JPAQueryFactory(em).selectFrom(member)
+                .where(member.age.in(select(memberSub.age).from(memberSub).where(memberSub.age.gt(95))))
+                .fetch());
+    }
+
+    @Benchmark
+    public List<Member> subQueryTemplate() {
+        return cleared(subQueryTemplate.bind(MIN_AGE, 95).fetch(em));
+    }
+
+    private List<Member> cleared(List<Member> result) {
+        em.clear();
+        return result;
+    }
+
+    private static com.querydsl.jpa.impl.JPAQuery<Member> joinQuery(JPAQueryFactory factory, Param<String> teamName) {
+        return factory.selectFrom(member)
+                .innerJoin(member.team, team)
+                .where(team.name.eq(teamName));
+    }
+}
@@ -0,0 +1,94 @@
+package study.querydsl.bench;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.querydsl.dto.MemberRankDto;
+import study.querydsl.dto.MemberTeamAgeDto;
+import study.querydsl.entity.QMember;
+import study.querydsl.repository.MemberRankingRepository;
+import study.querydsl.service.BulkLoader;
+import study.querydsl.service.BulkProgressListener;
+
+import java.util.List;
+
+import static com.querydsl.jpa.JPAExpressions.select;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 팀 평균 나이, 팀별 상위 N 명을 상관 서브쿼리와 윈도우 함수로 각각 조회하는 비용.
+ */
+@State(Scope.Benchmark)
+public class WindowFunctionBenchmark {
+
+    static final QMember memberSub = new QMember("memberSub");
+    static final int TOP = 3;
+
+    @Param({"1000", "10000"})
+    int dataSize;
+
+    ConfigurableApplicationContext context;
+    EntityManagerFactory emf;
+    MemberRankingRepository rankingRepository;
+    EntityManager em;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("window" + dataSize);
+        emf = context.getBean(EntityManagerFactory.class);
+        rankingRepository = context.getBean(MemberRankingRepository.class);
+        context.getBean(BulkLoader.class).loadTeamsAndMembers(10, dataSize, 1_000, BulkProgressListener.NONE);
+    }
+
+    // 스칼라/DTO 조회라 영속성 컨텍스트가 쌓이지 않으므로 iteration 단위로 연다
+    @Setup(Level.Iteration)
+    public void open() {
+        em = emf.createEntityManager();
+    }
+
+    @TearDown(Level.Iteration)
+    public void close() {
+        em.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Tuple> teamAverageSubQuery() {
+        return new JPAQueryFactory(em)
+                .select(member.name,
+                        select(memberSub.age.avg()).from(memberSub).where(memberSub.team.eq(member.team)))
+                .from(member)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<MemberTeamAgeDto> teamAverageWindow() {
+        return rankingRepository.findWithTeamAverageAge();
+    }
+
+    @Benchmark
+    public List<String> topByTeamSubQuery() {
+        // 나보다 나이 많은 팀원이 N 명 미만이면 상위 N 등
+        return new JPAQueryFactory(em)
+                .select(member.name)
+                .from(member)
+                .join(member.team, team)
+                .where(select(memberSub.count()).from(memberSub)
+                        .where(memberSub.team.eq(member.team), memberSub.age.gt(member.age))
+                        .lt((long) TOP))
+                .fetch();
+    }
+
+    @Benchmark
+    public List<MemberRankDto> topByTeamWindow() {
+        return rankingRepository.findTopByTeam(TOP);
+    }
+}
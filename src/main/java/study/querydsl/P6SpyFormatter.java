@@ -13,9 +13,12 @@ import java.sql.SQLException;
 @Component  // 1
 public class P6SpyFormatter extends JdbcEventListener implements MessageFormattingStrategy {
 
-    @Override // 2
+    @Override // 2 setLogMessageFormat 은 포맷터를 새로 생성하므로 아직 적용되지 않았을 때만 호출
     public void onAfterGetConnection(ConnectionInformation connectionInformation, SQLException e) {
-        P6SpyOptions.getActiveInstance().setLogMessageFormat(getClass().getName());
+        P6SpyOptions options = P6SpyOptions.getActiveInstance();
+        if (!(options.getLogMessageFormatInstance() instanceof P6SpyFormatter)) {
+            options.setLogMessageFormat(getClass().getName());
+        }
     }
 
     @Override // 3
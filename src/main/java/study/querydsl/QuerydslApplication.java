@@ -1,14 +1,32 @@
 package study.querydsl;
 
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.query.ReadOnlyQueryFactory;
 
 @SpringBootApplication
+@EnableScheduling
 public class QuerydslApplication {
 	public static void main(String[] args) {
 
 		SpringApplication.run(QuerydslApplication.class, args);
 	}
 
+	@Bean
+	@Primary
+	JPAQueryFactory jpaQueryFactory(EntityManager em) {
+		return new JPAQueryFactory(em);
+	}
+
+	@Bean
+	ReadOnlyQueryFactory readOnlyQueryFactory(EntityManager em) {
+		return new ReadOnlyQueryFactory(em);
+	}
+
 }
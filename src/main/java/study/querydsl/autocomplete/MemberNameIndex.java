@@ -0,0 +1,215 @@
+package study.querydsl.autocomplete;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static study.querydsl.entity.QMember.member;
+
+/**
+ * 회원 이름 자동완성 인덱스.
+ * 시작할 때 (name, id) 순서로 커서 조회해서 {@link NamePrefixIndex} 를 만들고,
+ * 이후에는 {@link MemberNameIndexListener} 가 커밋된 insert/update/delete 를 반영한다.
+ * 리스너를 거치지 않는 벌크 삭제 뒤에는 {@link #rebuildAfterCommit()} 으로 다시 만든다.
+ */
+@Slf4j
+@Component
+public class MemberNameIndex {
+
+    private final JPAQueryFactory query;
+    private final TransactionTemplate readOnlyTx;
+    private final ExecutorService background = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "member-name-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final AtomicBoolean compactionQueued = new AtomicBoolean();
+    private final Object lock = new Object();
+
+    @Value("${autocomplete.enabled:true}")
+    private boolean enabled;
+    @Value("${autocomplete.fetch-size:5000}")
+    private int fetchSize;
+
+    private volatile NamePrefixIndex index = NamePrefixIndex.empty();
+    // 다시 만들거나 병합하는 동안 들어온 변경. 새 인덱스로 바꾼 뒤 다시 적용한다
+    private List<Consumer<NamePrefixIndex>> pending;
+
+    public MemberNameIndex(JPAQueryFactory query, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.query = query;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        Gauge.builder("autocomplete.entries", this, indexer -> indexer.stats().entries()).register(meterRegistry);
+        Gauge.builder("autocomplete.bytes", this, indexer -> indexer.stats().estimatedBytes())
+                .baseUnit("bytes").register(meterRegistry);
+    }
+
+    public List<NameMatch> complete(String prefix, int limit) {
+        return index.topK(prefix, limit);
+    }
+
+    public NamePrefixIndex.Stats stats() {
+        return index.stats();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(cron = "${autocomplete.rebuild-cron:-}")
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        NamePrefixIndex built = replace(current -> load());
+        NamePrefixIndex.Stats stats = built.stats();
+        log.info("member name index built: {} entries, {} names, {} bytes ({} bytes/entry) in {} ms",
+                stats.entries(), stats.uniqueNames(), stats.estimatedBytes(),
+                String.format("%.1f", stats.bytesPerEntry()), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * delta/tombstone 을 기본 배열에 합친다. 요청 스레드의 변경은 lock 을 잠깐만 잡으므로 O(n) 병합 동안 막히지 않는다.
+     */
+    synchronized void compact() {
+        replace(NamePrefixIndex::compacted);
+    }
+
+    /**
+     * lock 밖에서 새 인덱스를 만들고, 그동안 들어온 변경을 다시 적용한 뒤 바꾼다. rebuild/compact 는 this 로 한 번에 하나만 실행된다.
+     */
+    private NamePrefixIndex replace(Function<NamePrefixIndex, NamePrefixIndex> factory) {
+        NamePrefixIndex current;
+        synchronized (lock) {
+            current = index;
+            pending = new ArrayList<>();
+        }
+        NamePrefixIndex replacement;
+        try {
+            replacement = factory.apply(current);
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                pending = null;
+            }
+            throw e;
+        }
+        synchronized (lock) {
+            pending.forEach(change -> change.accept(replacement));
+            pending = null;
+            index = replacement;
+        }
+        return replacement;
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋되면 백그라운드에서 다시 만든다. 여러 번 불러도 한 번만 실행된다.
+     */
+    public void rebuildAfterCommit() {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rebuildInBackground();
+                }
+            });
+        } else {
+            rebuildInBackground();
+        }
+    }
+
+    void added(long id, String name) {
+        apply(target -> target.add(id, name));
+    }
+
+    void removed(long id, String name) {
+        apply(target -> target.remove(id, name));
+    }
+
+    private void apply(Consumer<NamePrefixIndex> change) {
+        if (!enabled) {
+            return;
+        }
+        NamePrefixIndex current;
+        synchronized (lock) {
+            current = index;
+            change.accept(current);
+            if (pending != null) {
+                pending.add(change);
+            }
+        }
+        if (current.needsCompaction() && compactionQueued.compareAndSet(false, true)) {
+            background.execute(() -> {
+                try {
+                    compact();
+                } catch (RuntimeException e) {
+                    log.error("member name index compaction failed", e);
+                } finally {
+                    // 끝난 뒤에 풀어야 병합 중에 같은 작업이 또 쌓이지 않는다
+                    compactionQueued.set(false);
+                }
+            });
+        }
+    }
+
+    private void rebuildInBackground() {
+        if (rebuildQueued.compareAndSet(false, true)) {
+            background.execute(() -> {
+                rebuildQueued.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.error("member name index rebuild failed", e);
+                }
+            });
+        }
+    }
+
+    private NamePrefixIndex load() {
+        return readOnlyTx.execute(status -> {
+            NamePrefixIndex.Builder builder = NamePrefixIndex.builder();
+            // (name, id) 순서면 Builder 가 정렬하지 않는다 (idx_member_username_id)
+            try (Stream<Tuple> rows = query
+                    .select(member.id, member.name)
+                    .from(member)
+                    .where(member.name.isNotNull())
+                    .orderBy(member.name.asc(), member.id.asc())
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                    .stream()) {
+                rows.forEach(row -> builder.add(row.get(member.id), row.get(member.name)));
+            }
+            return builder.build();
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        background.shutdownNow();
+    }
+}
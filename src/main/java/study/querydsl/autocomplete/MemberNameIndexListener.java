@@ -0,0 +1,69 @@
+package study.querydsl.autocomplete;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import study.querydsl.entity.Member;
+
+/**
+ * 커밋된 Member insert/update/delete 의 이름 변경을 {@link MemberNameIndex} 에 반영한다.
+ * POST_COMMIT_* 이벤트라 롤백된 변경은 들어오지 않는다.
+ */
+@RequiredArgsConstructor
+public class MemberNameIndexListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private final MemberNameIndex index;
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member member) {
+            index.added((Long) event.getId(), member.getName());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Member member)) {
+            return;
+        }
+        Object[] oldState = event.getOldState();
+        if (oldState == null) {
+            // 이전 이름을 모르면(준영속 merge 등) 다시 만든다
+            index.rebuildAfterCommit();
+            return;
+        }
+        String oldName = (String) oldState[event.getPersister().getEntityMetamodel().getPropertyIndex("name")];
+        if (oldName == null ? member.getName() != null : !oldName.equals(member.getName())) {
+            Long id = (Long) event.getId();
+            index.removed(id, oldName);
+            index.added(id, member.getName());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member) {
+            Object[] deletedState = event.getDeletedState();
+            String name = (String) deletedState[event.getPersister().getEntityMetamodel().getPropertyIndex("name")];
+            index.removed((Long) event.getId(), name);
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return Member.class.isAssignableFrom(persister.getMappedClass());
+    }
+}
@@ -0,0 +1,4 @@
+package study.querydsl.autocomplete;
+
+public record NameMatch(long id, String name) {
+}
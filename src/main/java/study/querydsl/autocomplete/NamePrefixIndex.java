@@ -0,0 +1,318 @@
+package study.querydsl.autocomplete;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * 이름 접두사 검색용 인메모리 인덱스.
+ * <p>
+ * 기본 데이터는 정렬된 배열이다. 중복 없는 이름 배열(같은 이름은 String 하나를 공유)과
+ * 이름별 구간(offsets), (이름, id) 순으로 정렬된 id 배열로 이루어진다.
+ * 접두사로 이분 탐색한 뒤 앞에서부터 K 개를 읽는다.
+ * 이후 변경은 delta(추가)와 tombstone(삭제된 id)에 쌓고, 조회할 때 합친다. 커지면 {@link #compacted()} 로 다시 배열로 만든다.
+ * <p>
+ * 조회와 compacted 는 락 없이, 변경은 이 객체에 동기화해서 실행한다.
+ */
+public class NamePrefixIndex {
+
+    private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::name).thenComparingLong(Entry::id);
+
+    private volatile State state;
+
+    private NamePrefixIndex(Base base) {
+        this.state = new State(base, new ConcurrentSkipListSet<>(ORDER), ConcurrentHashMap.newKeySet());
+    }
+
+    public static NamePrefixIndex empty() {
+        return new NamePrefixIndex(Base.EMPTY);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return 이름 순(같으면 id 순)으로 최대 limit 개
+     */
+    public List<NameMatch> topK(String prefix, int limit) {
+        State s = state;
+        Base base = s.base;
+        List<NameMatch> result = new ArrayList<>(Math.min(limit, 64));
+        if (limit <= 0) {
+            return result;
+        }
+
+        int nameIndex = base.lowerBound(prefix);
+        int entryIndex = nameIndex < base.names.length ? base.offsets[nameIndex] : base.ids.length;
+        Iterator<Entry> deltas = s.delta.tailSet(new Entry(prefix, Long.MIN_VALUE)).iterator();
+        Entry delta = nextMatch(deltas, prefix);
+
+        while (result.size() < limit) {
+            // 이름 구간을 넘어가면 다음 이름으로
+            while (nameIndex < base.names.length && entryIndex >= base.offsets[nameIndex + 1]) {
+                nameIndex++;
+            }
+            boolean hasBase = nameIndex < base.names.length && base.names[nameIndex].startsWith(prefix);
+            if (hasBase && s.tombstones.contains(base.ids[entryIndex])) {
+                entryIndex++;
+                continue;
+            }
+            if (!hasBase && delta == null) {
+                break;
+            }
+            if (hasBase && (delta == null || compare(base.names[nameIndex], base.ids[entryIndex], delta) < 0)) {
+                result.add(new NameMatch(base.ids[entryIndex], base.names[nameIndex]));
+                entryIndex++;
+            } else {
+                result.add(new NameMatch(delta.id(), delta.name()));
+                delta = nextMatch(deltas, prefix);
+            }
+        }
+        return result;
+    }
+
+    public synchronized void add(long id, String name) {
+        if (name == null) {
+            return;
+        }
+        State s = state;
+        if (s.base.contains(name, id)) {
+            s.tombstones.remove(id);
+        } else {
+            s.delta.add(new Entry(name, id));
+        }
+    }
+
+    public synchronized void remove(long id, String name) {
+        if (name == null) {
+            return;
+        }
+        State s = state;
+        if (!s.delta.remove(new Entry(name, id)) && s.base.contains(name, id)) {
+            s.tombstones.add(id);
+        }
+    }
+
+    public boolean needsCompaction() {
+        State s = state;
+        return s.delta.size() + s.tombstones.size() > Math.max(10_000, s.base.ids.length / 8);
+    }
+
+    /**
+     * 기본 배열, delta, tombstone 을 합친 새 인덱스를 만든다. O(n) 이고 이 인덱스는 바꾸지 않는다.
+     * 만드는 동안 들어온 변경은 반영될 수도 안 될 수도 있으므로, 호출한 쪽이 기록해 두었다가 새 인덱스에 다시 적용한다
+     * (add/remove 는 여러 번 적용해도 결과가 같다).
+     */
+    public NamePrefixIndex compacted() {
+        State s = state;
+        Builder builder = new Builder();
+        Base base = s.base;
+        Iterator<Entry> deltas = s.delta.iterator();
+        Entry delta = deltas.hasNext() ? deltas.next() : null;
+        for (int n = 0; n < base.names.length; n++) {
+            for (int e = base.offsets[n]; e < base.offsets[n + 1]; e++) {
+                while (delta != null && compare(base.names[n], base.ids[e], delta) > 0) {
+                    builder.add(delta.id(), delta.name());
+                    delta = deltas.hasNext() ? deltas.next() : null;
+                }
+                if (!s.tombstones.contains(base.ids[e])) {
+                    builder.add(base.ids[e], base.names[n]);
+                }
+            }
+        }
+        while (delta != null) {
+            builder.add(delta.id(), delta.name());
+            delta = deltas.hasNext() ? deltas.next() : null;
+        }
+        return builder.build();
+    }
+
+    public Stats stats() {
+        State s = state;
+        long entries = s.base.ids.length - s.tombstones.size() + s.delta.size();
+        // delta: Entry + skip list 노드, tombstone: Long + 해시 노드 (대략)
+        long bytes = s.base.estimatedBytes() + s.delta.size() * 96L + s.tombstones.size() * 56L;
+        return new Stats(entries, s.base.names.length, s.delta.size(), s.tombstones.size(), bytes);
+    }
+
+    private static Entry nextMatch(Iterator<Entry> deltas, String prefix) {
+        if (deltas.hasNext()) {
+            Entry next = deltas.next();
+            if (next.name().startsWith(prefix)) {
+                return next;
+            }
+        }
+        return null;
+    }
+
+    private static int compare(String name, long id, Entry entry) {
+        int byName = name.compareTo(entry.name());
+        return byName != 0 ? byName : Long.compare(id, entry.id());
+    }
+
+    /**
+     * @param estimatedBytes 배열과 문자열의 대략적인 힙 사용량 (compressed oops 기준)
+     */
+    public record Stats(long entries, int uniqueNames, int pendingAdds, int pendingRemoves, long estimatedBytes) {
+        public double bytesPerEntry() {
+            return entries == 0 ? 0 : (double) estimatedBytes / entries;
+        }
+    }
+
+    private record Entry(String name, long id) {
+    }
+
+    private record State(Base base, ConcurrentSkipListSet<Entry> delta, Set<Long> tombstones) {
+    }
+
+    private static final class Base {
+        static final Base EMPTY = new Base(new String[0], new int[]{0}, new long[0]);
+
+        final String[] names;
+        final int[] offsets;
+        final long[] ids;
+
+        Base(String[] names, int[] offsets, long[] ids) {
+            this.names = names;
+            this.offsets = offsets;
+            this.ids = ids;
+        }
+
+        int lowerBound(String prefix) {
+            int i = Arrays.binarySearch(names, prefix);
+            return i >= 0 ? i : -i - 1;
+        }
+
+        boolean contains(String name, long id) {
+            int i = Arrays.binarySearch(names, name);
+            return i >= 0 && Arrays.binarySearch(ids, offsets[i], offsets[i + 1], id) >= 0;
+        }
+
+        long estimatedBytes() {
+            long bytes = align(16 + 8L * ids.length) + align(16 + 4L * offsets.length) + align(16 + 4L * names.length);
+            for (String name : names) {
+                bytes += 24 + align(16 + (isLatin1(name) ? name.length() : 2L * name.length()));
+            }
+            return bytes;
+        }
+
+        private static boolean isLatin1(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) > 0xFF) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long align(long bytes) {
+            return (bytes + 7) & ~7L;
+        }
+    }
+
+    /**
+     * 순서에 상관없이 받아서 (이름, id) 순으로 정렬한다. 이미 정렬된 입력(order by name, id)이면 정렬을 건너뛴다.
+     */
+    public static final class Builder {
+        private String[] names = new String[1024];
+        private long[] ids = new long[1024];
+        private int size;
+        private boolean sorted = true;
+
+        private Builder() {
+        }
+
+        public Builder add(long id, String name) {
+            if (name == null) {
+                return this;
+            }
+            if (size == ids.length) {
+                int capacity = size + (size >> 1);
+                names = Arrays.copyOf(names, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+            }
+            if (sorted && size > 0) {
+                int byName = names[size - 1].compareTo(name);
+                sorted = byName < 0 || (byName == 0 && ids[size - 1] < id);
+            }
+            names[size] = name;
+            ids[size] = id;
+            size++;
+            return this;
+        }
+
+        public NamePrefixIndex build() {
+            return new NamePrefixIndex(buildBase());
+        }
+
+        private Base buildBase() {
+            if (!sorted) {
+                sort(new String[size], new long[size], 0, size);
+            }
+            // 같은 이름은 String 하나만 남긴다
+            int unique = 0;
+            for (int i = 0; i < size; i++) {
+                if (i == 0 || !names[i].equals(names[i - 1])) {
+                    unique++;
+                }
+            }
+            String[] uniqueNames = new String[unique];
+            int[] offsets = new int[unique + 1];
+            int u = -1;
+            for (int i = 0; i < size; i++) {
+                if (i == 0 || !names[i].equals(names[i - 1])) {
+                    uniqueNames[++u] = names[i];
+                    offsets[u] = i;
+                }
+            }
+            offsets[unique] = size;
+            long[] sortedIds = Arrays.copyOf(ids, size);
+            names = null;
+            ids = null;
+            return new Base(uniqueNames, offsets, sortedIds);
+        }
+
+        /**
+         * names/ids 를 함께 정렬하는 병합 정렬 (tmp 는 작업 공간)
+         */
+        private void sort(String[] tmpNames, long[] tmpIds, int from, int to) {
+            if (to - from < 2) {
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            sort(tmpNames, tmpIds, from, mid);
+            sort(tmpNames, tmpIds, mid, to);
+            if (less(mid - 1, mid) || equalEntry(mid - 1, mid)) {
+                return; // 이미 순서대로
+            }
+            System.arraycopy(names, from, tmpNames, from, to - from);
+            System.arraycopy(ids, from, tmpIds, from, to - from);
+            int left = from;
+            int right = mid;
+            for (int i = from; i < to; i++) {
+                if (right >= to || (left < mid && compareTmp(tmpNames, tmpIds, left, right) <= 0)) {
+                    names[i] = tmpNames[left];
+                    ids[i] = tmpIds[left++];
+                } else {
+                    names[i] = tmpNames[right];
+                    ids[i] = tmpIds[right++];
+                }
+            }
+        }
+
+        private boolean less(int a, int b) {
+            int byName = names[a].compareTo(names[b]);
+            return byName < 0 || (byName == 0 && ids[a] < ids[b]);
+        }
+
+        private boolean equalEntry(int a, int b) {
+            return ids[a] == ids[b] && names[a].equals(names[b]);
+        }
+
+        private static int compareTmp(String[] tmpNames, long[] tmpIds, int a, int b) {
+            int byName = tmpNames[a].compareTo(tmpNames[b]);
+            return byName != 0 ? byName : Long.compare(tmpIds[a], tmpIds[b]);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package study.querydsl.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import study.querydsl.autocomplete.MemberNameIndex;
+import study.querydsl.autocomplete.MemberNameIndexListener;
+import study.querydsl.listener.ItemCatalogSyncListener;
+import study.querydsl.listener.LazyLoadGuard;
+import study.querydsl.listener.TeamStatsSyncListener;
+import study.querydsl.metrics.WorkloadEntityLoadListener;
+
+@Configuration
+@RequiredArgsConstructor
+public class HibernateListenerConfig {
+
+    private final EntityManagerFactory emf;
+    private final MemberNameIndex memberNameIndex;
+
+    @Value("${lazy-load-guard.mode:off}")
+    private String lazyLoadGuardMode;
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+
+        ItemCatalogSyncListener itemCatalog = new ItemCatalogSyncListener();
+        registry.appendListeners(EventType.POST_INSERT, itemCatalog);
+        registry.appendListeners(EventType.POST_UPDATE, itemCatalog);
+        registry.appendListeners(EventType.POST_DELETE, itemCatalog);
+
+        TeamStatsSyncListener teamStats = new TeamStatsSyncListener();
+        registry.appendListeners(EventType.POST_INSERT, teamStats);
+        registry.appendListeners(EventType.POST_UPDATE, teamStats);
+        registry.appendListeners(EventType.POST_DELETE, teamStats);
+        // 기본 flush 리스너가 member 변경을 실행한 뒤 팀별로 모은 차이를 반영
+        registry.appendListeners(EventType.FLUSH, teamStats);
+        registry.appendListeners(EventType.AUTO_FLUSH, teamStats);
+
+        MemberNameIndexListener memberNames = new MemberNameIndexListener(memberNameIndex);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, memberNames);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, memberNames);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, memberNames);
+
+        registry.appendListeners(EventType.POST_LOAD, new WorkloadEntityLoadListener());
+
+        LazyLoadGuard.Mode guardMode = LazyLoadGuard.Mode.valueOf(lazyLoadGuardMode.toUpperCase());
+        if (guardMode != LazyLoadGuard.Mode.OFF) {
+            // 기본 리스너가 SQL 을 실행하기 전에 검사
+            LazyLoadGuard guard = new LazyLoadGuard(guardMode);
+            registry.prependListeners(EventType.LOAD, guard);
+            registry.prependListeners(EventType.INIT_COLLECTION, guard);
+        }
+    }
+}
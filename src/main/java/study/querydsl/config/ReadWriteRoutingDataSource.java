@@ -0,0 +1,183 @@
+package study.querydsl.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * readOnly 트랜잭션은 replica 로, 나머지는 primary 로 보낸다.
+ * <ul>
+ *     <li>replica 선택: ROUND_ROBIN 또는 활성 커넥션이 가장 적은 풀(LEAST_LOADED, Hikari 만 해당)</li>
+ *     <li>readYourWrites: 쓰기 트랜잭션 이후 이 시간 동안은 같은 스레드(요청)의 읽기도 primary 로 (복제 지연 대비, 0 이면 끔).
+ *     다른 스레드의 읽기는 영향을 받지 않으므로 쓰기가 많아도 replica 로 가는 읽기가 줄지 않는다</li>
+ *     <li>연결에 실패한 replica 는 retryAfter 동안 제외하고 primary 로 대신 보낸다.
+ *     풀이 꽉 차서 기다리다 시간이 다 된 경우는 replica 가 정상이므로 이번 요청만 primary 로 보낸다</li>
+ * </ul>
+ * 트랜잭션 시작 시점에는 readOnly 여부가 아직 동기화 매니저에 없으므로 LazyConnectionDataSourceProxy 로 감싸서 쓴다.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Strategy {
+        ROUND_ROBIN, LEAST_LOADED
+    }
+
+    static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Strategy strategy;
+    private final long readYourWritesMillis;
+    private final long retryAfterMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    // 스레드마다 마지막 쓰기 시각 (readYourWrites 를 켰을 때만 기록)
+    private final ThreadLocal<Long> lastWriteMillis = new ThreadLocal<>();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicaDataSources, Strategy strategy,
+                                      Duration readYourWrites, Duration retryAfter) {
+        this.strategy = strategy;
+        this.readYourWritesMillis = readYourWrites.toMillis();
+        this.retryAfterMillis = retryAfter.toMillis();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            Replica replica = new Replica("replica-" + i, replicaDataSources.get(i));
+            replicas.add(replica);
+            targets.put(replica.key, replica.dataSource);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Replica replica = chooseReplica();
+        return replica != null ? replica.key : PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = chooseReplica();
+        if (replica == null) {
+            return primaryConnection();
+        }
+        try {
+            return replica.dataSource.getConnection();
+        } catch (SQLException e) {
+            if (isPoolExhausted(e)) {
+                log.debug("replica {} pool exhausted, using primary for this connection: {}", replica.key, e.getMessage());
+            } else {
+                replica.downUntilMillis = System.currentTimeMillis() + retryAfterMillis;
+                log.warn("replica {} unavailable, falling back to primary for {}ms: {}",
+                        replica.key, retryAfterMillis, e.getMessage());
+            }
+            return primaryConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("routing uses the pools' own credentials");
+    }
+
+    /**
+     * Hikari 는 풀에서 기다리다 시간이 다 되면 SQLTransientConnectionException 을 던지고,
+     * 그동안 새 연결이 실패했으면 그 예외를 cause 로 붙인다. cause 가 없으면 DB 는 정상이고 풀만 꽉 찬 것이다.
+     */
+    static boolean isPoolExhausted(SQLException e) {
+        return e instanceof SQLTransientConnectionException && e.getCause() == null;
+    }
+
+    private Connection primaryConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWrite();
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                // 커밋 시점부터 다시 window 를 센다
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        recordWrite();
+                    }
+                });
+            }
+        }
+        return getResolvedDataSources().get(PRIMARY).getConnection();
+    }
+
+    private void recordWrite() {
+        if (readYourWritesMillis > 0) {
+            lastWriteMillis.set(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * @return 읽기를 보낼 replica, primary 로 보내야 하면 null
+     */
+    private Replica chooseReplica() {
+        if (replicas.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (readYourWritesMillis > 0) {
+            Long lastWrite = lastWriteMillis.get();
+            if (lastWrite != null && now - lastWrite < readYourWritesMillis) {
+                return null;
+            }
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        Replica chosen = null;
+        int chosenLoad = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.downUntilMillis > now) {
+                continue;
+            }
+            if (strategy == Strategy.ROUND_ROBIN) {
+                return replica;
+            }
+            int load = replica.activeConnections();
+            if (load < chosenLoad) {
+                chosen = replica;
+                chosenLoad = load;
+            }
+        }
+        return chosen;
+    }
+
+    private static final class Replica {
+        private final String key;
+        private final DataSource dataSource;
+        private volatile long downUntilMillis;
+
+        private Replica(String key, DataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+
+        private int activeConnections() {
+            if (dataSource instanceof HikariDataSource hikari) {
+                HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+                return pool == null ? 0 : pool.getActiveConnections();
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package study.querydsl.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * datasource.routing.* (primary 는 spring.datasource 를 그대로 사용)
+ */
+@Getter
+@Setter
+@ConfigurationProperties("datasource.routing")
+public class RoutingDataSourceProperties {
+
+    private boolean enabled;
+    private ReadWriteRoutingDataSource.Strategy strategy = ReadWriteRoutingDataSource.Strategy.ROUND_ROBIN;
+    private Duration readYourWrites = Duration.ZERO;
+    private Duration retryAfter = Duration.ofSeconds(10);
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username = "sa";
+        private String password = "";
+        private int maximumPoolSize = 10;
+        // 죽은 replica 를 빨리 포기하고 primary 로 넘어가도록 짧게
+        private Duration connectionTimeout = Duration.ofSeconds(1);
+    }
+}
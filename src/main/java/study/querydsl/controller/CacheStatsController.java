@@ -0,0 +1,46 @@
+package study.querydsl.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class CacheStatsController {
+
+    private final EntityManagerFactory emf;
+
+    /**
+     * 2차 캐시 region 별 hit/miss/put 과 메모리에 있는 항목 수
+     */
+    @GetMapping("/cache-stats")
+    public Map<String, Map<String, Long>> cacheStats() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Map<String, Long>> regions = new LinkedHashMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+            if (stats == null) {
+                continue;
+            }
+            Map<String, Long> values = new LinkedHashMap<>();
+            values.put("hit", stats.getHitCount());
+            values.put("miss", stats.getMissCount());
+            values.put("put", stats.getPutCount());
+            values.put("inMemory", stats.getElementCountInMemory());
+            regions.put(region, values);
+        }
+        Map<String, Long> query = new LinkedHashMap<>();
+        query.put("hit", statistics.getQueryCacheHitCount());
+        query.put("miss", statistics.getQueryCacheMissCount());
+        query.put("put", statistics.getQueryCachePutCount());
+        regions.put("query", query);
+        return regions;
+    }
+}
@@ -0,0 +1,54 @@
+package study.querydsl.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import study.querydsl.service.MemberExportService;
+
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequiredArgsConstructor
+public class MemberExportController {
+
+    private final MemberExportService memberExportService;
+
+    /**
+     * /members/export?format=csv&gzip=true
+     */
+    @GetMapping("/members/export")
+    public StreamingResponseBody export(@RequestParam(defaultValue = "ndjson") String format,
+                                        @RequestParam(defaultValue = "false") boolean gzip,
+                                        HttpServletResponse response) {
+        MemberExportService.Format exportFormat;
+        try {
+            exportFormat = MemberExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format 은 ndjson, csv 중 하나입니다");
+        }
+        response.setContentType(exportFormat == MemberExportService.Format.CSV
+                ? "text/csv;charset=UTF-8" : "application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=members." + exportFormat.name().toLowerCase());
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        // 트랜잭션은 응답을 쓰는 동안에만 열린다
+        return out -> {
+            if (gzip) {
+                try (OutputStream zipped = new GZIPOutputStream(out, 64 * 1024)) {
+                    memberExportService.export(zipped, exportFormat);
+                }
+            } else {
+                memberExportService.export(out, exportFormat);
+            }
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package study.querydsl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.autocomplete.MemberNameIndex;
+import study.querydsl.autocomplete.NameMatch;
+import study.querydsl.dto.MemberRankDto;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.TeamMembersDto;
+import study.querydsl.dto.TeamStatsDto;
+import study.querydsl.paging.PageResult;
+import study.querydsl.service.MemberQueryService;
+
+import java.util.List;
+
+/**
+ * 조회 API. 서비스가 트랜잭션 안에서 만든 DTO 만 직렬화한다 (open-in-view: false).
+ */
+@RestController
+@RequiredArgsConstructor
+public class MemberQueryController {
+
+    private final MemberQueryService memberQueryService;
+    private final MemberNameIndex memberNameIndex;
+
+    @GetMapping("/members/{id}")
+    public ResponseEntity<MemberTeamDto> member(@PathVariable Long id) {
+        MemberTeamDto found = memberQueryService.findMember(id);
+        return found == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(found);
+    }
+
+    @GetMapping("/members")
+    public List<MemberTeamDto> membersOfTeam(@RequestParam String teamName) {
+        return memberQueryService.findMembersOfTeam(teamName);
+    }
+
+    /**
+     * /members/search?namePrefix=mem&ageGoe=20&teamName=teamA&city=seoul&periodFrom=2024-01-01T00:00:00
+     */
+    @GetMapping("/members/search")
+    public List<MemberTeamDto> search(MemberSearchCondition condition,
+                                      @RequestParam(defaultValue = "0") long offset,
+                                      @RequestParam(defaultValue = "20") long limit) {
+        return memberQueryService.search(condition, offset, Math.min(limit, 1_000));
+    }
+
+    /**
+     * 이름 자동완성. DB 를 거치지 않고 메모리 인덱스에서 찾는다 (커밋 직후 반영)
+     */
+    @GetMapping("/members/autocomplete")
+    public List<NameMatch> autocomplete(@RequestParam String prefix,
+                                        @RequestParam(defaultValue = "10") int limit) {
+        return memberNameIndex.complete(prefix, Math.min(limit, 100));
+    }
+
+    @GetMapping("/members/top")
+    public List<MemberRankDto> topByTeam(@RequestParam(defaultValue = "3") int n) {
+        return memberQueryService.findTopByTeam(n);
+    }
+
+    @GetMapping("/teams")
+    public PageResult<TeamMembersDto> teams(@RequestParam(defaultValue = "0") long offset,
+                                            @RequestParam(defaultValue = "10") long limit) {
+        return memberQueryService.findTeams(offset, limit);
+    }
+
+    @GetMapping("/teams/stats")
+    public List<TeamStatsDto> teamStats() {
+        return memberQueryService.findTeamStats();
+    }
+}
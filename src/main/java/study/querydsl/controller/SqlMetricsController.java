@@ -0,0 +1,38 @@
+package study.querydsl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import study.querydsl.sql.SqlMetricsRegistry;
+import study.querydsl.sql.SqlStatsView;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/sql-metrics")
+public class SqlMetricsController {
+
+    private final SqlMetricsRegistry registry;
+
+    /**
+     * sort=total 누적 시간, p99 느린 순, count 자주 실행된 순
+     */
+    @GetMapping
+    public List<SqlStatsView> top(@RequestParam(defaultValue = "total") String sort,
+                                  @RequestParam(defaultValue = "20") int limit) {
+        SqlMetricsRegistry.SortKey sortKey;
+        try {
+            sortKey = SqlMetricsRegistry.SortKey.valueOf(sort.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "sort 는 total, p99, count 중 하나입니다");
+        }
+        return registry.top(sortKey, limit);
+    }
+
+    @DeleteMapping
+    public void reset() {
+        registry.reset();
+    }
+}
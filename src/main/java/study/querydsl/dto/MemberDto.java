@@ -0,0 +1,16 @@
+package study.querydsl.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public class MemberDto {
+    private String name;
+    private int age;
+
+    public MemberDto(String name, int age) {
+        this.name = name;
+        this.age = age;
+    }
+}
@@ -0,0 +1,22 @@
+package study.querydsl.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public class MemberRankDto {
+    private Long memberId;
+    private String name;
+    private int age;
+    private String teamName;
+    private long rank;
+
+    public MemberRankDto(Long memberId, String name, int age, String teamName, long rank) {
+        this.memberId = memberId;
+        this.name = name;
+        this.age = age;
+        this.teamName = teamName;
+        this.rank = rank;
+    }
+}
@@ -0,0 +1,28 @@
+package study.querydsl.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * 회원 검색 조건. null 인 조건은 where 절에 들어가지 않는다.
+ */
+@Getter
+@Setter
+@ToString
+public class MemberSearchCondition {
+    private String namePrefix;
+    private Integer ageGoe;
+    private Integer ageLoe;
+    private String teamName;
+    // address 또는 address2 의 도시
+    private String city;
+    // period 가 [periodFrom, periodTo] 와 겹치는 회원
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime periodFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime periodTo;
+}
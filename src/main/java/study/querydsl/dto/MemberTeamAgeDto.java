@@ -0,0 +1,24 @@
+package study.querydsl.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public class MemberTeamAgeDto {
+    private Long memberId;
+    private String name;
+    private int age;
+    private String teamName;
+    private Double teamAverageAge;
+
+    @QueryProjection
+    public MemberTeamAgeDto(Long memberId, String name, int age, String teamName, Double teamAverageAge) {
+        this.memberId = memberId;
+        this.name = name;
+        this.age = age;
+        this.teamName = teamName;
+        this.teamAverageAge = teamAverageAge;
+    }
+}
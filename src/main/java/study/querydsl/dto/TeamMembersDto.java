@@ -0,0 +1,20 @@
+package study.querydsl.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter
+@ToString(of = {"teamId", "teamName"})
+public class TeamMembersDto {
+    private Long teamId;
+    private String teamName;
+    private List<MemberTeamDto> members;
+
+    public TeamMembersDto(Long teamId, String teamName, List<MemberTeamDto> members) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.members = members;
+    }
+}
@@ -0,0 +1,30 @@
+package study.querydsl.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Item(TABLE_PER_CLASS) 조회용 비정규화 테이블.
+ * 다형성 조회가 union all 없이 테이블 하나로 끝난다.
+ * Item 저장/수정/삭제 시 {@link study.querydsl.listener.ItemCatalogSyncListener} 가 같이 반영한다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "item_catalog", indexes = {
+        @Index(name = "idx_item_catalog_type_price", columnList = "item_type, price"),
+        @Index(name = "idx_item_catalog_price", columnList = "price")
+})
+public class ItemCatalog {
+    @Id
+    @Column(name = "item_id")
+    private Long id;
+
+    @Column(name = "item_type", length = 1)
+    private String type; // 하위 타입의 @DiscriminatorValue (A, B, M)
+
+    private String name;
+    private int price;
+}
@@ -1,8 +1,13 @@
 package study.querydsl.entity;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 @Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Locker {
     @Id
     @GeneratedValue
@@ -12,4 +17,8 @@ public class Locker {
 
     @OneToOne(mappedBy = "locker")
     private Member member;
+
+    public Locker(String name) {
+        this.name = name;
+    }
 }
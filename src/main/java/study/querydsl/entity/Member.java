@@ -3,19 +3,42 @@ package study.querydsl.entity;
 import lombok.*;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.*;
 
 @Entity
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
+@NamedEntityGraph(name = Member.GRAPH_SUMMARY,
+        attributeNodes = @NamedAttributeNode("team"))
+@NamedEntityGraph(name = Member.GRAPH_WITH_ADDRESSES,
+        attributeNodes = {@NamedAttributeNode("team"), @NamedAttributeNode("addressEntity")})
+// MemberSearchRepository.search 의 조건별 인덱스
+@Table(indexes = {
+        @Index(name = "idx_member_username_id", columnList = "USERNAME, member_id"),
+        @Index(name = "idx_member_age", columnList = "age"),
+        @Index(name = "idx_member_team_age", columnList = "team_id, age"),
+        @Index(name = "idx_member_city", columnList = "city"),
+        @Index(name = "idx_member_second_city", columnList = "second_city"),
+        @Index(name = "idx_member_period_start", columnList = "start_date"),
+        @Index(name = "idx_member_period_end", columnList = "end_date")})
+// Team.memberList 컬렉션 캐시가 히트했을 때 회원도 캐시에서 조립한다
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "member")
 public class Member extends BaseEntity{
+    public static final String GRAPH_SUMMARY = "Member.summary";
+    public static final String GRAPH_WITH_ADDRESSES = "Member.withAddresses";
+
     public Member(String name) {
         this.name = name;
     }
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq")
+    @SequenceGenerator(name = "member_seq", sequenceName = "member_seq", allocationSize = 100) // pooled optimizer
     @Column(name = "member_id")
     private Long id;
 
@@ -32,9 +55,12 @@ public class Member extends BaseEntity{
     @JoinColumn(name = "locker_id",unique = true)
     private Locker locker;
 
+    // List(bag) 는 하나만 빠져도 전체 삭제 후 재삽입하므로 Set 으로 바뀐 행만 반영. pk (member_id, product_id)
     @ManyToMany
-    @JoinTable(name = "member_product")
-    private List<Product> products = new ArrayList<>();
+    @JoinTable(name = "member_product",
+            joinColumns = @JoinColumn(name = "member_id"),
+            inverseJoinColumns = @JoinColumn(name = "product_id"))
+    private Set<Product> products = new HashSet<>();
 
     @Embedded
     private Address address;
@@ -56,15 +82,16 @@ public class Member extends BaseEntity{
     @ElementCollection
     @CollectionTable(name = "favorite_food",
     joinColumns = @JoinColumn(name = "member_id"))
-    @Column(name = "food_name")
+    @Column(name = "food_name", nullable = false) // not null 이어야 pk (member_id, food_name) 가 생긴다
     private Set<String> Foods = new HashSet<>();
 
 //    @ElementCollection
 //    @CollectionTable(name = "address",joinColumns = @JoinColumn(name = "member_id"))
 //    private List<Address> addresseHistory = new ArrayList<>();
 
-    @OneToMany(fetch = FetchType.EAGER,cascade = CascadeType.ALL,orphanRemoval = true)
+    @OneToMany(cascade = CascadeType.ALL,orphanRemoval = true)
     @JoinColumn(name = "member_id")
+    @BatchSize(size = 100)
     private List<AddressEntity> addressEntity = new ArrayList<>();
 
     public Member(String name, int age, Team team) {
@@ -6,7 +6,10 @@ import java.util.Date;
 
 @Embeddable
 public class Period {
+    // 인덱스 columnList 에서 쓰도록 물리 이름을 고정
+    @Column(name = "start_date")
     private LocalDateTime startDate;
+    @Column(name = "end_date")
     private LocalDateTime endDate;
 
     public Period(LocalDateTime startDate, LocalDateTime endDate) {
@@ -1,8 +1,10 @@
 package study.querydsl.entity;
 
 import jakarta.persistence.*;
+import lombok.Getter;
 
 @Entity
+@Getter
 public class Product {
     @Id
     @Column(name = "product_id")
@@ -3,6 +3,8 @@ package study.querydsl.entity;
 import lombok.*;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -11,17 +13,23 @@ import java.util.List;
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of={"id","name"})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "team")
+@Table(indexes = @Index(name = "idx_team_name", columnList = "TEAMNAME"))
 public class Team extends BaseEntity{
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq")
+    @SequenceGenerator(name = "team_seq", sequenceName = "team_seq", allocationSize = 100) // pooled optimizer
     @Column(name = "team_id")
     private Long id;
 
     @Column(name="TEAMNAME")
     private String name;
 
+    // 컬렉션 캐시는 회원 id 만 담고 회원 자체는 member region 에서 읽는다
     @OneToMany(mappedBy = "team")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "team.memberList")
 //    @OneToMany
 //    @JoinColumn(name = "team_id")
     private List<Member> memberList=new ArrayList<>();
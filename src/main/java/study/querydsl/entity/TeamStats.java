@@ -0,0 +1,34 @@
+package study.querydsl.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 팀별 회원 수/나이 합계/최소/최대를 미리 집계해 둔 테이블.
+ * Member 저장/수정/삭제 시 {@link study.querydsl.listener.TeamStatsSyncListener} 가 증분으로 갱신한다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "team_stats")
+public class TeamStats {
+    public static final long NO_TEAM = 0L; // 팀이 없는 회원
+
+    @Id
+    @Column(name = "team_id")
+    private Long teamId;
+
+    private long memberCount;
+    private long ageSum;
+    private Integer minAge;
+    private Integer maxAge;
+
+    public Double getAverageAge() {
+        return memberCount == 0 ? null : (double) ageSum / memberCount;
+    }
+}
@@ -0,0 +1,59 @@
+package study.querydsl.listener;
+
+import jakarta.persistence.DiscriminatorValue;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import study.querydsl.entity.Item;
+
+import java.sql.PreparedStatement;
+
+/**
+ * Item 변경을 item_catalog 에 반영한다.
+ * flush 중에 실행되므로 EntityManager 대신 같은 커넥션으로 JDBC 를 직접 실행한다.
+ */
+public class ItemCatalogSyncListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Item item) {
+            execute(event.getSession(), "insert into item_catalog (item_id, item_type, name, price) values (?, ?, ?, ?)",
+                    (Long) event.getId(), type(item), item.getName(), item.getPrice());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Item item) {
+            execute(event.getSession(), "update item_catalog set name = ?, price = ? where item_id = ?",
+                    item.getName(), item.getPrice(), (Long) event.getId());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Item) {
+            execute(event.getSession(), "delete from item_catalog where item_id = ?", (Long) event.getId());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    static String type(Item item) {
+        DiscriminatorValue value = item.getClass().getAnnotation(DiscriminatorValue.class);
+        return value != null ? value.value() : item.getClass().getSimpleName().substring(0, 1);
+    }
+
+    private static void execute(EventSource session, String sql, Object... params) {
+        session.doWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                for (int i = 0; i < params.length; i++) {
+                    ps.setObject(i + 1, params[i]);
+                }
+                ps.executeUpdate();
+            }
+        });
+    }
+}
@@ -0,0 +1,51 @@
+package study.querydsl.listener;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.HibernateException;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEvent;
+import org.hibernate.event.spi.LoadEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 트랜잭션 밖에서 일어나는 지연 로딩(프록시 초기화, 컬렉션 초기화)을 찾는다.
+ * 세션이 열려 있으면(OSIV, 직접 연 EntityManager) 조용히 SQL 이 나가므로 서비스 계층에서 미리 로딩하도록 알려준다.
+ * <p>
+ * log: 경고 로그, fail: SQL 을 실행하기 전에 IllegalStateException (테스트용)
+ */
+@Slf4j
+public class LazyLoadGuard implements LoadEventListener, InitializeCollectionEventListener {
+
+    public enum Mode {OFF, LOG, FAIL}
+
+    private final Mode mode;
+
+    public LazyLoadGuard(Mode mode) {
+        this.mode = mode;
+    }
+
+    @Override
+    public void onLoad(LoadEvent event, LoadType loadType) throws HibernateException {
+        if (loadType == LoadEventListener.IMMEDIATE_LOAD) {
+            check(event.getEntityClassName() + "#" + event.getEntityId());
+        }
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) throws HibernateException {
+        check(event.getCollection().getRole() + "#" + event.getCollection().getKey());
+    }
+
+    private void check(String target) {
+        if (mode == Mode.OFF || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        String message = "lazy load of " + target + " outside a transaction"
+                + " - load it in the service layer (fetch join, entity graph or DTO)";
+        if (mode == Mode.FAIL) {
+            throw new IllegalStateException(message);
+        }
+        log.warn(message);
+    }
+}
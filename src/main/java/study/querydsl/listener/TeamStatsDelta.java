@@ -0,0 +1,59 @@
+package study.querydsl.listener;
+
+/**
+ * flush 한 번 동안 한 팀에 쌓인 회원 변경. 회원 수/나이 합계는 차이만 모으고,
+ * 빠진 회원이 있으면 최소/최대값은 member 에서 한 번만 다시 구한다.
+ */
+final class TeamStatsDelta {
+
+    private long memberDelta;
+    private long ageDelta;
+    private Integer minAdded;
+    private Integer maxAdded;
+    private boolean removed;
+    private boolean recompute;
+
+    void add(int age) {
+        memberDelta++;
+        ageDelta += age;
+        minAdded = minAdded == null ? age : Math.min(minAdded, age);
+        maxAdded = maxAdded == null ? age : Math.max(maxAdded, age);
+    }
+
+    void remove(int age) {
+        memberDelta--;
+        ageDelta -= age;
+        removed = true;
+    }
+
+    /**
+     * 이전 값을 몰라 차이를 구할 수 없을 때. member 에서 팀 전체를 다시 집계한다.
+     */
+    void recompute() {
+        recompute = true;
+    }
+
+    long getMemberDelta() {
+        return memberDelta;
+    }
+
+    long getAgeDelta() {
+        return ageDelta;
+    }
+
+    Integer getMinAdded() {
+        return minAdded;
+    }
+
+    Integer getMaxAdded() {
+        return maxAdded;
+    }
+
+    boolean isRemoved() {
+        return removed;
+    }
+
+    boolean isRecompute() {
+        return recompute;
+    }
+}
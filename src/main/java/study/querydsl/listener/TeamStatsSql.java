@@ -0,0 +1,175 @@
+package study.querydsl.listener;
+
+import study.querydsl.entity.TeamStats;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+
+/**
+ * team_stats 갱신 SQL. 리스너(flush 중)와 재집계 작업이 같이 사용한다.
+ * <p>
+ * 리스너가 flush 한 번 동안 모은 팀별 차이를 팀마다 한 문장(MERGE)으로 반영한다.
+ * 회원 수/나이 합계는 읽지 않고 차이만 더하므로,
+ * 같은 팀을 동시에 바꾸는 트랜잭션은 행 잠금으로 순서가 정해지고 서로의 변경을 덮어쓰지 않는다.
+ * 각 문장은 savepoint 안에서 실행해서 실패해도 업무 트랜잭션은 계속 쓸 수 있다.
+ */
+public final class TeamStatsSql {
+
+    private static final String ADD =
+            "merge into team_stats t " +
+            "using (select cast(? as bigint) as team_id, cast(? as bigint) as member_delta, cast(? as bigint) as age_delta, " +
+            "cast(? as int) as min_age, cast(? as int) as max_age) s on t.team_id = s.team_id " +
+            "when matched then update set member_count = t.member_count + s.member_delta, age_sum = t.age_sum + s.age_delta, " +
+            "min_age = least(coalesce(t.min_age, s.min_age), s.min_age), " +
+            "max_age = greatest(coalesce(t.max_age, s.max_age), s.max_age) " +
+            "when not matched then insert (team_id, member_count, age_sum, min_age, max_age) " +
+            "values (s.team_id, s.member_delta, s.age_delta, s.min_age, s.max_age)";
+
+    // 빠진 나이가 최소/최대값이었을 수 있으므로 범위는 member 에서 다시 구한다 (팀당 한 번)
+    private static final String ADD_AND_REMOVE =
+            "merge into team_stats t " +
+            "using (select cast(? as bigint) as team_id, cast(? as bigint) as member_delta, cast(? as bigint) as age_delta, " +
+            "min(age) as min_age, max(age) as max_age from member where %s) s on t.team_id = s.team_id " +
+            "when matched then update set member_count = t.member_count + s.member_delta, age_sum = t.age_sum + s.age_delta, " +
+            "min_age = s.min_age, max_age = s.max_age";
+
+    private static final String RECOMPUTE =
+            "merge into team_stats t " +
+            "using (select cast(? as bigint) as team_id, count(*) as member_count, coalesce(sum(age), 0) as age_sum, " +
+            "min(age) as min_age, max(age) as max_age from member where %s) s on t.team_id = s.team_id " +
+            "when matched then update set member_count = s.member_count, age_sum = s.age_sum, " +
+            "min_age = s.min_age, max_age = s.max_age " +
+            "when not matched and s.member_count > 0 then insert (team_id, member_count, age_sum, min_age, max_age) " +
+            "values (s.team_id, s.member_count, s.age_sum, s.min_age, s.max_age)";
+
+    private TeamStatsSql() {
+    }
+
+    /**
+     * flush 동안 모은 팀 하나의 변경을 한 문장으로 반영한다. member 의 변경(배치)은 이미 실행되어 있어야 한다.
+     * <ul>
+     *     <li>추가만 있으면 차이를 더하고, 처음 들어오는 팀이면 행을 만든다.
+     *     동시에 다른 트랜잭션이 같은 팀 행을 먼저 만들었으면(키 중복) 한 번 더 실행해서 갱신한다</li>
+     *     <li>빠진 회원이 있으면 차이를 더하고 최소/최대값은 다시 구한다. 집계 행이 없으면 팀 전체를 다시 집계한다</li>
+     * </ul>
+     */
+    static void apply(Connection connection, long teamId, TeamStatsDelta delta) throws SQLException {
+        if (delta.isRecompute()) {
+            recompute(connection, teamId);
+        } else if (!delta.isRemoved()) {
+            upsert(connection, () -> {
+                try (PreparedStatement ps = connection.prepareStatement(ADD)) {
+                    ps.setLong(1, teamId);
+                    ps.setLong(2, delta.getMemberDelta());
+                    ps.setLong(3, delta.getAgeDelta());
+                    ps.setInt(4, delta.getMinAdded());
+                    ps.setInt(5, delta.getMaxAdded());
+                    ps.executeUpdate();
+                }
+            });
+        } else if (addAndRemove(connection, teamId, delta) == 0) {
+            recompute(connection, teamId);
+        }
+    }
+
+    private static int addAndRemove(Connection connection, long teamId, TeamStatsDelta delta) throws SQLException {
+        Savepoint savepoint = savepoint(connection);
+        try (PreparedStatement ps = connection.prepareStatement(ADD_AND_REMOVE.formatted(memberFilter(teamId)))) {
+            ps.setLong(1, teamId);
+            ps.setLong(2, delta.getMemberDelta());
+            ps.setLong(3, delta.getAgeDelta());
+            if (teamId != TeamStats.NO_TEAM) {
+                ps.setLong(4, teamId);
+            }
+            int updated = ps.executeUpdate();
+            release(connection, savepoint);
+            return updated;
+        } catch (SQLException e) {
+            rollback(connection, savepoint);
+            throw e;
+        }
+    }
+
+    /**
+     * 팀 하나를 member 에서 다시 집계한다. 회원이 없는 팀은 0 으로 남긴다.
+     */
+    public static void recompute(Connection connection, long teamId) throws SQLException {
+        upsert(connection, () -> {
+            try (PreparedStatement ps = connection.prepareStatement(RECOMPUTE.formatted(memberFilter(teamId)))) {
+                ps.setLong(1, teamId);
+                if (teamId != TeamStats.NO_TEAM) {
+                    ps.setLong(2, teamId);
+                }
+                ps.executeUpdate();
+            }
+        });
+    }
+
+    public static void rebuild(Connection connection) throws SQLException {
+        try (PreparedStatement merge = connection.prepareStatement(
+                "merge into team_stats t " +
+                        "using (select coalesce(team_id, 0) as team_id, count(*) as member_count, sum(age) as age_sum, " +
+                        "min(age) as min_age, max(age) as max_age from member group by team_id) s on t.team_id = s.team_id " +
+                        "when matched then update set member_count = s.member_count, age_sum = s.age_sum, " +
+                        "min_age = s.min_age, max_age = s.max_age " +
+                        "when not matched then insert (team_id, member_count, age_sum, min_age, max_age) " +
+                        "values (s.team_id, s.member_count, s.age_sum, s.min_age, s.max_age)");
+             PreparedStatement empty = connection.prepareStatement(
+                     "update team_stats set member_count = 0, age_sum = 0, min_age = null, max_age = null " +
+                             "where member_count <> 0 and team_id not in (select coalesce(team_id, 0) from member)")) {
+            merge.executeUpdate();
+            empty.executeUpdate();
+        }
+    }
+
+    private static String memberFilter(long teamId) {
+        return teamId == TeamStats.NO_TEAM ? "team_id is null" : "team_id = ?";
+    }
+
+    private static void upsert(Connection connection, SqlWork work) throws SQLException {
+        Savepoint savepoint = savepoint(connection);
+        try {
+            work.execute();
+        } catch (SQLException e) {
+            rollback(connection, savepoint);
+            if (!isDuplicateKey(e)) {
+                throw e;
+            }
+            // 다른 트랜잭션이 만든 행이 커밋되었으므로 이번에는 matched 로 갱신된다
+            savepoint = savepoint(connection);
+            try {
+                work.execute();
+            } catch (SQLException retry) {
+                rollback(connection, savepoint);
+                throw retry;
+            }
+        }
+        release(connection, savepoint);
+    }
+
+    private static boolean isDuplicateKey(SQLException e) {
+        return e.getSQLState() != null && e.getSQLState().startsWith("23");
+    }
+
+    private static Savepoint savepoint(Connection connection) throws SQLException {
+        return connection.getAutoCommit() ? null : connection.setSavepoint();
+    }
+
+    private static void release(Connection connection, Savepoint savepoint) throws SQLException {
+        if (savepoint != null) {
+            connection.releaseSavepoint(savepoint);
+        }
+    }
+
+    private static void rollback(Connection connection, Savepoint savepoint) throws SQLException {
+        if (savepoint != null) {
+            connection.rollback(savepoint);
+        }
+    }
+
+    private interface SqlWork {
+        void execute() throws SQLException;
+    }
+}
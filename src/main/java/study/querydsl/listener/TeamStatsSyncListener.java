@@ -0,0 +1,123 @@
+package study.querydsl.listener;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.entity.TeamStats;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+
+/**
+ * Member 의 insert/update/delete(ChangeTeam 포함)를 team_stats 에 증분 반영한다.
+ * <p>
+ * 행마다 SQL 을 실행하면 member 배치가 끊기므로, post 이벤트에서는 팀별 차이(TeamStatsDelta)만 모으고
+ * flush 가 끝난 뒤(member 배치 실행 후) 바뀐 팀마다 한 문장으로 반영한다.
+ * 팀 id 순서로 반영해서 여러 팀을 바꾸는 트랜잭션끼리 잠금 순서가 엇갈리지 않게 하고,
+ * 팀 행 잠금은 flush 시점(보통 커밋 직전)부터만 잡는다.
+ * 집계 갱신이 실패해도 회원 변경은 그대로 진행하고, 어긋난 팀은 정합성 검사(team-stats.check-cron)에서 복구한다.
+ */
+@Slf4j
+public class TeamStatsSyncListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+        FlushEventListener, AutoFlushEventListener {
+
+    // 세션마다 아직 반영하지 않은 팀별 차이. 세션이 정리되지 않고 버려져도 남지 않도록 약한 참조로 둔다
+    private final Map<SharedSessionContractImplementor, Map<Long, TeamStatsDelta>> pending =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member member) {
+            delta(event.getSession(), teamId(member.getTeam())).add(member.getAge());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Member member)) {
+            return;
+        }
+        long newTeam = teamId(member.getTeam());
+        Object[] oldState = event.getOldState();
+        if (oldState == null) {
+            // 이전 값을 모르면(준영속 merge 등) 현재 팀만 다시 집계, 이전 팀은 정합성 검사에서 복구
+            log.warn("member {} updated without previous state, recomputing team {}", event.getId(), newTeam);
+            delta(event.getSession(), newTeam).recompute();
+            return;
+        }
+        var metamodel = event.getPersister().getEntityMetamodel();
+        long oldTeam = teamId((Team) oldState[metamodel.getPropertyIndex("team")]);
+        int oldAge = (Integer) oldState[metamodel.getPropertyIndex("age")];
+        if (oldTeam == newTeam && oldAge == member.getAge()) {
+            return;
+        }
+        delta(event.getSession(), oldTeam).remove(oldAge);
+        delta(event.getSession(), newTeam).add(member.getAge());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member member) {
+            delta(event.getSession(), teamId(member.getTeam())).remove(member.getAge());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    /**
+     * 기본 flush 리스너 뒤에 등록한다. 이때는 member 변경이 모두 실행되어 있다.
+     */
+    @Override
+    public void onFlush(FlushEvent event) {
+        flushPending(event.getSession());
+    }
+
+    @Override
+    public void onAutoFlush(AutoFlushEvent event) {
+        flushPending(event.getSession());
+    }
+
+    private TeamStatsDelta delta(EventSource session, long teamId) {
+        Map<Long, TeamStatsDelta> deltas = pending.get(session);
+        if (deltas == null) {
+            deltas = new TreeMap<>();
+            pending.put(session, deltas);
+            // flush 밖에서 실행된 변경은 커밋 직전에 반영하고, 롤백 등으로 남은 차이는 트랜잭션이 끝나면 버린다
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) this::flushPending);
+            session.getActionQueue().registerProcess(
+                    (AfterTransactionCompletionProcess) (success, s) -> pending.remove(s));
+        }
+        return deltas.computeIfAbsent(teamId, id -> new TeamStatsDelta());
+    }
+
+    private void flushPending(SharedSessionContractImplementor session) {
+        Map<Long, TeamStatsDelta> deltas = pending.get(session);
+        if (deltas == null || deltas.isEmpty()) {
+            return;
+        }
+        // 실패한 팀도 다시 시도하지 않고 정합성 검사에 맡긴다
+        Map<Long, TeamStatsDelta> touched = new TreeMap<>(deltas);
+        deltas.clear();
+        touched.forEach((teamId, delta) -> {
+            try {
+                session.doWork(connection -> TeamStatsSql.apply(connection, teamId, delta));
+            } catch (RuntimeException e) {
+                log.warn("team_stats update failed for team {}, left for consistency check", teamId, e);
+            }
+        });
+    }
+
+    private static long teamId(Team team) {
+        return team == null ? TeamStats.NO_TEAM : team.getId();
+    }
+}
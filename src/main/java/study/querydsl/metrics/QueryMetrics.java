@@ -0,0 +1,50 @@
+package study.querydsl.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * QueryDSL 쿼리에 논리적인 이름을 붙여 실행 시간을 querydsl.query{query=이름} 타이머로 기록한다.
+ * <pre>
+ * queryMetrics.timed("member.findByTeamName", () -&gt; query.selectFrom(member)...fetch());
+ * </pre>
+ */
+@Component
+public class QueryMetrics {
+
+    public static final String METER = "querydsl.query";
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public QueryMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public <T> T timed(String name, Supplier<T> query) {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "success";
+        try {
+            return query.get();
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            sample.stop(timer(name, outcome));
+        }
+    }
+
+    private Timer timer(String name, String outcome) {
+        return timers.computeIfAbsent(name + "|" + outcome, k -> Timer.builder(METER)
+                .description("QueryDSL query execution time by logical name")
+                .tag("query", name)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+}
@@ -0,0 +1,62 @@
+package study.querydsl.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 요청 하나 동안 실행된 SQL 문장 수와 로딩된 엔티티 수.
+ * 범위는 {@link #begin}/{@link #end} 로 열고 닫으며, 열린 범위가 없으면 기록하지 않는다.
+ * 응답을 다른 스레드에서 마저 쓰는 요청(StreamingResponseBody 등)은 {@link #attach} 로 같은 범위를 이어서 센다.
+ */
+public class RequestWorkload {
+
+    private static final ThreadLocal<RequestWorkload> CURRENT = new ThreadLocal<>();
+
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder entities = new LongAdder();
+
+    public static void begin() {
+        attach(new RequestWorkload());
+    }
+
+    /**
+     * 다른 스레드에서 연 범위를 현재 스레드에 연결한다. 끝나면 {@link #end} 로 떼어낸다.
+     */
+    public static void attach(RequestWorkload workload) {
+        CURRENT.set(workload);
+    }
+
+    /**
+     * @return 현재 스레드에 열린 범위, 없으면 null
+     */
+    public static RequestWorkload current() {
+        return CURRENT.get();
+    }
+
+    public static RequestWorkload end() {
+        RequestWorkload workload = CURRENT.get();
+        CURRENT.remove();
+        return workload;
+    }
+
+    static void statementExecuted() {
+        RequestWorkload workload = CURRENT.get();
+        if (workload != null) {
+            workload.statements.increment();
+        }
+    }
+
+    static void entityLoaded() {
+        RequestWorkload workload = CURRENT.get();
+        if (workload != null) {
+            workload.entities.increment();
+        }
+    }
+
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    public long getEntities() {
+        return entities.sum();
+    }
+}
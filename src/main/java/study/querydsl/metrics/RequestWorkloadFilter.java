@@ -0,0 +1,80 @@
+package study.querydsl.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * 요청마다 SQL 문장 수와 로딩된 엔티티 수를 엔드포인트(uri 패턴) 별 분포로 기록한다.
+ * /actuator/metrics/orm.request.statements?tag=uri:/members/export 처럼 조회한다.
+ * <p>
+ * 비동기로 응답을 쓰는 요청은 첫 디스패치에서 기록하지 않고, 작업 스레드({@link RequestWorkloadTaskDecorator})에서
+ * 이어서 센 뒤 ASYNC 디스패치가 끝날 때 한 번 기록한다.
+ */
+@Component
+public class RequestWorkloadFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS = "orm.request.statements";
+    public static final String ENTITIES = "orm.request.entities";
+
+    private static final String WORKLOAD_ATTRIBUTE = RequestWorkload.class.getName();
+
+    private final MeterRegistry registry;
+
+    public RequestWorkloadFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestWorkload workload = isAsyncDispatch(request)
+                ? (RequestWorkload) request.getAttribute(WORKLOAD_ATTRIBUTE) : null;
+        if (workload == null) {
+            RequestWorkload.begin();
+        } else {
+            RequestWorkload.attach(workload);
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            workload = RequestWorkload.end();
+            if (isAsyncStarted(request)) {
+                request.setAttribute(WORKLOAD_ATTRIBUTE, workload);
+            } else {
+                record(request, workload);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestWorkload workload) {
+        // 템플릿 uri 를 쓰므로 /members/1, /members/2 가 하나의 태그로 묶인다
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        summary(STATEMENTS, "SQL statements executed per request", request.getMethod(), uri)
+                .record(workload.getStatements());
+        summary(ENTITIES, "Entities loaded per request", request.getMethod(), uri)
+                .record(workload.getEntities());
+    }
+
+    private DistributionSummary summary(String name, String description, String method, String uri) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(registry);
+    }
+}
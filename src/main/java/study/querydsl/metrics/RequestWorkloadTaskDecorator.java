@@ -0,0 +1,28 @@
+package study.querydsl.metrics;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+/**
+ * 작업을 제출한 요청의 {@link RequestWorkload} 를 실행 스레드에 넘긴다.
+ * 부트가 applicationTaskExecutor 에 적용하므로 MVC 비동기 응답(StreamingResponseBody, Callable)의 SQL 도 요청에 합산된다.
+ */
+@Component
+public class RequestWorkloadTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        RequestWorkload workload = RequestWorkload.current();
+        if (workload == null) {
+            return runnable;
+        }
+        return () -> {
+            RequestWorkload.attach(workload);
+            try {
+                runnable.run();
+            } finally {
+                RequestWorkload.end();
+            }
+        };
+    }
+}
@@ -0,0 +1,15 @@
+package study.querydsl.metrics;
+
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+
+/**
+ * 로딩된 엔티티(2차 캐시에서 조립된 것 포함)를 현재 요청의 {@link RequestWorkload} 에 센다.
+ */
+public class WorkloadEntityLoadListener implements PostLoadEventListener {
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        RequestWorkload.entityLoaded();
+    }
+}
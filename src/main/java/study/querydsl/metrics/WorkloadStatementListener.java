@@ -0,0 +1,19 @@
+package study.querydsl.metrics;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+/**
+ * 실행된 SQL 문장(배치는 한 번)을 현재 요청의 {@link RequestWorkload} 에 센다.
+ */
+@Component
+public class WorkloadStatementListener extends JdbcEventListener {
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        RequestWorkload.statementExecuted();
+    }
+}
@@ -0,0 +1,10 @@
+package study.querydsl.paging;
+
+public enum CountStrategy {
+    /** 컨텐츠 조회 후 같은 커넥션에서 count */
+    SYNC,
+    /** 컨텐츠 조회와 동시에 별도 커넥션에서 count (커밋되지 않은 변경은 보이지 않는다) */
+    ASYNC,
+    /** 같은 조건의 total 을 TTL 동안 재사용, 없으면 SYNC */
+    CACHED
+}
@@ -0,0 +1,80 @@
+package study.querydsl.paging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 마지막 행의 정렬 키 값을 클라이언트가 그대로 돌려주는 불투명 문자열로 인코딩한다.
+ * 값마다 "타입:값" 문자열로 만든 JSON 배열을 Base64 로 감싼다. 클라이언트가 보낸 문자열에서 객체를 역직렬화하지 않는다.
+ */
+public final class KeysetCursor {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(Object[] values) {
+        String[] typed = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            typed[i] = values[i] == null ? null : tag(values[i]) + ":" + values[i];
+        }
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(JSON.writeValueAsBytes(typed));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static Object[] decode(String cursor) {
+        try {
+            String[] typed = JSON.readValue(Base64.getUrlDecoder().decode(cursor), String[].class);
+            Object[] values = new Object[typed.length];
+            for (int i = 0; i < typed.length; i++) {
+                values[i] = typed[i] == null ? null : parse(typed[i]);
+            }
+            return values;
+        } catch (IOException | IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + cursor, e);
+        }
+    }
+
+    // 정렬 키로 쓰이는 값 타입만 허용
+    private static String tag(Object value) {
+        if (value instanceof String) return "s";
+        if (value instanceof Long) return "l";
+        if (value instanceof Integer) return "i";
+        if (value instanceof Double) return "d";
+        if (value instanceof BigDecimal) return "n";
+        if (value instanceof Boolean) return "b";
+        if (value instanceof LocalDateTime) return "t";
+        if (value instanceof LocalDate) return "date";
+        throw new IllegalArgumentException("커서로 인코딩할 수 없는 정렬 키 타입입니다: " + value.getClass().getName());
+    }
+
+    private static Object parse(String typed) {
+        int colon = typed.indexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("타입이 없는 커서 값입니다");
+        }
+        String value = typed.substring(colon + 1);
+        return switch (typed.substring(0, colon)) {
+            case "s" -> value;
+            case "l" -> Long.valueOf(value);
+            case "i" -> Integer.valueOf(value);
+            case "d" -> Double.valueOf(value);
+            case "n" -> new BigDecimal(value);
+            case "b" -> Boolean.valueOf(value);
+            case "t" -> LocalDateTime.parse(value);
+            case "date" -> LocalDate.parse(value);
+            default -> throw new IllegalArgumentException("알 수 없는 커서 값 타입입니다");
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package study.querydsl.paging;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class KeysetPage<T> {
+    private final List<T> content;
+    private final String nextCursor; // 다음 페이지가 없으면 null
+
+    public KeysetPage(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,117 @@
+package study.querydsl.paging;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.*;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.jpa.impl.JPAQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * offset/limit 대신 마지막 행의 정렬 키 다음부터 읽는 keyset(seek) 페이징.
+ * <p>
+ * orders 의 마지막 키는 유일하고 null 이 아닌 값(보통 id)이어야 한다.
+ * NullHandling.Default 는 H2 기본값(null 이 가장 작은 값)을 따른다고 가정한다.
+ */
+public final class KeysetPaging {
+
+    private KeysetPaging() {
+    }
+
+    /**
+     * @param query  select/from/where 까지만 지정된 쿼리 (orderBy, offset, limit 은 여기서 붙인다)
+     * @param cursor 이전 페이지의 {@link KeysetPage#getNextCursor()}, 첫 페이지는 null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> KeysetPage<T> fetch(JPAQuery<T> query, List<OrderSpecifier<?>> orders, String cursor, int size) {
+        if (orders.isEmpty()) {
+            throw new IllegalArgumentException("정렬 키가 하나 이상 필요합니다");
+        }
+        Expression<T> projection = (Expression<T>) query.getMetadata().getProjection();
+
+        Expression<?>[] columns = new Expression<?>[orders.size() + 1];
+        columns[0] = projection;
+        for (int i = 0; i < orders.size(); i++) {
+            columns[i + 1] = orders.get(i).getTarget();
+        }
+
+        JPAQuery<Tuple> seek = query.clone()
+                .select(columns)
+                .orderBy(orders.toArray(new OrderSpecifier<?>[0]))
+                .limit(size + 1);
+        if (cursor != null) {
+            Object[] values = KeysetCursor.decode(cursor);
+            if (values.length != orders.size()) {
+                throw new IllegalArgumentException("정렬 키 개수와 커서가 일치하지 않습니다");
+            }
+            Predicate after = after(orders, values);
+            if (after == null) {
+                return new KeysetPage<>(List.of(), null);
+            }
+            seek.where(after);
+        }
+
+        List<Tuple> rows = seek.fetch();
+        boolean hasNext = rows.size() > size;
+        if (hasNext) {
+            rows = rows.subList(0, size);
+        }
+
+        List<T> content = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            content.add(row.get(projection));
+        }
+        String nextCursor = null;
+        if (hasNext) {
+            Tuple last = rows.get(rows.size() - 1);
+            Object[] values = new Object[orders.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = last.get(i + 1, Object.class);
+            }
+            nextCursor = KeysetCursor.encode(values);
+        }
+        return new KeysetPage<>(content, nextCursor);
+    }
+
+    /**
+     * (k1 > v1) or (k1 = v1 and k2 > v2) or ... 형태의 조건. 더 뒤에 올 행이 없으면 null.
+     */
+    static Predicate after(List<OrderSpecifier<?>> orders, Object[] values) {
+        BooleanBuilder result = new BooleanBuilder();
+        BooleanBuilder prefix = new BooleanBuilder();
+        for (int i = 0; i < orders.size(); i++) {
+            OrderSpecifier<?> order = orders.get(i);
+            Predicate beyond = beyond(order, values[i]);
+            if (beyond != null) {
+                result.or(new BooleanBuilder(prefix).and(beyond));
+            }
+            prefix.and(equalTo(order.getTarget(), values[i]));
+        }
+        return result.getValue();
+    }
+
+    private static Predicate beyond(OrderSpecifier<?> order, Object value) {
+        Expression<?> target = order.getTarget();
+        boolean nullsLast = order.getNullHandling() == OrderSpecifier.NullHandling.NullsLast
+                || (order.getNullHandling() == OrderSpecifier.NullHandling.Default && !order.isAscending());
+        if (value == null) {
+            // null 다음에는 null 이 아닌 값이 오거나(nulls first) 아무것도 없다(nulls last)
+            return nullsLast ? null : Expressions.predicate(Ops.IS_NOT_NULL, target);
+        }
+        Ops op = order.isAscending() ? Ops.GT : Ops.LT;
+        BooleanBuilder beyond = new BooleanBuilder(Expressions.predicate(op, target, Expressions.constant(value)));
+        if (nullsLast) {
+            beyond.or(Expressions.predicate(Ops.IS_NULL, target));
+        }
+        return beyond.getValue();
+    }
+
+    private static Predicate equalTo(Expression<?> target, Object value) {
+        if (value == null) {
+            return Expressions.predicate(Ops.IS_NULL, target);
+        }
+        return Expressions.predicate(Ops.EQ, target, Expressions.constant(value));
+    }
+}
@@ -0,0 +1,139 @@
+package study.querydsl.paging;
+
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.jpa.impl.JPAQuery;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * fetchResults() 대신 사용하는 페이지 조회.
+ * 컨텐츠만으로 total 을 알 수 있으면 count 쿼리를 생략한다.
+ * <p>
+ * count 쿼리는 원본 쿼리와 별도로 작성해서 넘긴다 (불필요한 join, fetch join 제거).
+ */
+@Component
+public class PageFetcher {
+
+    private final EntityManagerFactory emf;
+    private final Duration countCacheTtl;
+    private final ExecutorService countExecutor;
+    private final ConcurrentHashMap<String, CachedCount> countCache = new ConcurrentHashMap<>();
+
+    public PageFetcher(EntityManagerFactory emf,
+                       @Value("${paging.count.cache-ttl:10s}") Duration countCacheTtl,
+                       @Value("${paging.count.async-threads:4}") int asyncThreads) {
+        this.emf = emf;
+        this.countCacheTtl = countCacheTtl;
+        this.countExecutor = Executors.newFixedThreadPool(asyncThreads, r -> {
+            Thread thread = new Thread(r, "page-count");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public <T> PageResult<T> fetch(JPAQuery<T> content, JPAQuery<Long> count, long offset, long limit) {
+        return fetch(content, count, offset, limit, CountStrategy.SYNC);
+    }
+
+    public <T> PageResult<T> fetch(JPAQuery<T> content, JPAQuery<Long> count, long offset, long limit,
+                                   CountStrategy strategy) {
+        Future<Long> asyncTotal = strategy == CountStrategy.ASYNC ? countAsync(count) : null;
+
+        List<T> results = content.offset(offset).limit(limit).fetch();
+
+        Long elided = elideCount(results.size(), offset, limit);
+        if (elided != null) {
+            if (asyncTotal != null) {
+                asyncTotal.cancel(true);
+            }
+            return new PageResult<>(results, offset, limit, elided, true);
+        }
+
+        long total = switch (strategy) {
+            case ASYNC -> await(asyncTotal);
+            case CACHED -> countCached(count);
+            case SYNC -> fetchCount(count);
+        };
+        return new PageResult<>(results, offset, limit, total, false);
+    }
+
+    /**
+     * 첫 페이지가 limit 보다 작거나, 마지막 페이지(0 < size < limit)이면 total 을 바로 계산.
+     */
+    static Long elideCount(int size, long offset, long limit) {
+        if (offset == 0 && size < limit) {
+            return (long) size;
+        }
+        if (size != 0 && size < limit) {
+            return offset + size;
+        }
+        return null;
+    }
+
+    public void evictCountCache() {
+        countCache.clear();
+    }
+
+    private Future<Long> countAsync(JPAQuery<Long> count) {
+        return countExecutor.submit(() -> {
+            EntityManager em = emf.createEntityManager();
+            try {
+                return fetchCount(count.clone(em));
+            } finally {
+                em.close();
+            }
+        });
+    }
+
+    private long countCached(JPAQuery<Long> count) {
+        String key = cacheKey(count.getMetadata());
+        long now = System.nanoTime();
+        CachedCount cached = countCache.get(key);
+        if (cached != null && cached.expiresAt - now > 0) {
+            return cached.total;
+        }
+        long total = fetchCount(count);
+        countCache.put(key, new CachedCount(total, now + countCacheTtl.toNanos()));
+        if (countCache.size() > 1_000) {
+            countCache.values().removeIf(c -> c.expiresAt - now <= 0);
+        }
+        return total;
+    }
+
+    // where/join 조건의 toString 에는 바인딩 값까지 포함된다
+    private static String cacheKey(QueryMetadata metadata) {
+        return metadata.getProjection() + "|" + metadata.getJoins() + "|" + metadata.getWhere()
+                + "|" + metadata.getGroupBy() + "|" + metadata.getHaving();
+    }
+
+    private static long fetchCount(JPAQuery<Long> count) {
+        Long total = count.fetchOne();
+        return total == null ? 0 : total;
+    }
+
+    private static long await(Future<Long> total) {
+        try {
+            return total.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("count 쿼리 대기 중 인터럽트", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("count 쿼리 실패", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        countExecutor.shutdownNow();
+    }
+
+    private record CachedCount(long total, long expiresAt) {
+    }
+}
@@ -0,0 +1,29 @@
+package study.querydsl.paging;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * {@link com.querydsl.core.QueryResults} 와 같은 offset/limit/total 정보를 담는 페이지.
+ */
+@Getter
+public class PageResult<T> {
+    private final List<T> results;
+    private final long offset;
+    private final long limit;
+    private final long total;
+    private final boolean countElided; // count 쿼리 없이 total 을 계산했는지
+
+    public PageResult(List<T> results, long offset, long limit, long total, boolean countElided) {
+        this.results = results;
+        this.offset = offset;
+        this.limit = limit;
+        this.total = total;
+        this.countElided = countElided;
+    }
+
+    public boolean isEmpty() {
+        return results.isEmpty();
+    }
+}
@@ -0,0 +1,26 @@
+package study.querydsl.query;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import org.hibernate.jpa.HibernateHints;
+
+/**
+ * QueryDSL 쿼리에 하이버네이트 쿼리 캐시를 적용한다.
+ * 결과가 엔티티면 id 만 캐시되므로 엔티티도 2차 캐시 대상이어야 SQL 없이 끝난다.
+ * 조회한 테이블이 변경되면 update-timestamps region 기준으로 자동 무효화된다.
+ */
+public final class QueryCacheHints {
+
+    private QueryCacheHints() {
+    }
+
+    public static <T> JPAQuery<T> cacheable(JPAQuery<T> query) {
+        query.setHint(HibernateHints.HINT_CACHEABLE, true);
+        return query;
+    }
+
+    public static <T> JPAQuery<T> cacheable(JPAQuery<T> query, String region) {
+        query.setHint(HibernateHints.HINT_CACHEABLE, true);
+        query.setHint(HibernateHints.HINT_CACHE_REGION, region);
+        return query;
+    }
+}
@@ -0,0 +1,141 @@
+package study.querydsl.query;
+
+import com.querydsl.core.NonUniqueResultException;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.QueryModifiers;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.FactoryExpressionUtils;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.ParamNotSetException;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.JPAProvider;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.impl.JPAQuery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import java.util.*;
+
+/**
+ * {@link Param} 으로 정의한 QueryDSL 쿼리를 한 번만 JPQL 로 직렬화해 두고 바인딩만 바꿔 실행한다.
+ * 같은 JPQL 문자열이 재사용되므로 하이버네이트 쿼리 플랜 캐시(hibernate.query.plan_cache_max_size)도 항상 적중한다.
+ * <pre>
+ * Param&lt;String&gt; teamName = new Param&lt;&gt;(String.class, "teamName");
+ * QueryTemplate&lt;Member&gt; byTeam = QueryTemplate.of(query.selectFrom(member).where(member.team.name.eq(teamName)));
+ * byTeam.bind(teamName, "teamA").fetch(em);
+ * </pre>
+ */
+public final class QueryTemplate<T> {
+
+    private final QueryMetadata metadata;
+    private final Expression<?> projection;
+    private volatile Serialized serialized;
+
+    private QueryTemplate(QueryMetadata metadata) {
+        this.metadata = metadata;
+        // 중첩된 프로젝션(Tuple 안의 DTO 등)은 JPQL 에서 펼쳐진 컬럼을 다시 묶어야 하므로 JPAQuery 처럼 감싼다
+        Expression<?> select = metadata.getProjection();
+        this.projection = select instanceof FactoryExpression<?> factory ? FactoryExpressionUtils.wrap(factory) : select;
+    }
+
+    public static <T> QueryTemplate<T> of(JPAQuery<T> query) {
+        return new QueryTemplate<>(query.getMetadata().clone());
+    }
+
+    public String getJpql(EntityManager em) {
+        return serialize(em).jpql;
+    }
+
+    public <P> Bindings bind(Param<P> param, P value) {
+        return new Bindings().bind(param, value);
+    }
+
+    public Bindings bindings() {
+        return new Bindings();
+    }
+
+    private Serialized serialize(EntityManager em) {
+        Serialized current = serialized;
+        if (current == null) {
+            JPQLSerializer serializer = new JPQLSerializer(JPAProvider.getTemplates(em), em);
+            serializer.serialize(metadata, false, null);
+            current = new Serialized(serializer.toString(), Collections.unmodifiableList(new ArrayList<>(serializer.getConstants())));
+            serialized = current;
+        }
+        return current;
+    }
+
+    private record Serialized(String jpql, List<Object> constants) {
+    }
+
+    /**
+     * 실행 한 번에 사용할 파라미터 값. 스레드 간에 공유하지 않는다.
+     */
+    public final class Bindings {
+        private final Map<ParamExpression<?>, Object> values = new HashMap<>();
+
+        public <P> Bindings bind(Param<P> param, P value) {
+            values.put(param, value);
+            return this;
+        }
+
+        public List<T> fetch(EntityManager em) {
+            return transform(createQuery(em).getResultList());
+        }
+
+        /**
+         * @return 결과가 없으면 null
+         * @throws NonUniqueResultException 결과가 두 건 이상일 때 (QueryDSL 의 fetchOne 과 같다)
+         */
+        public T fetchOne(EntityManager em) {
+            Query query = createQuery(em);
+            if (metadata.getModifiers().getLimit() == null) {
+                query.setMaxResults(2);
+            }
+            List<T> results = transform(query.getResultList());
+            if (results.size() > 1) {
+                throw new NonUniqueResultException();
+            }
+            return results.isEmpty() ? null : results.get(0);
+        }
+
+        private Query createQuery(EntityManager em) {
+            Serialized s = serialize(em);
+            Query query = em.createQuery(s.jpql);
+            List<Object> constants = s.constants;
+            for (int i = 0; i < constants.size(); i++) {
+                Object value = constants.get(i);
+                if (value instanceof ParamExpression<?> param) {
+                    if (!values.containsKey(param)) {
+                        throw new ParamNotSetException((Param<?>) param);
+                    }
+                    value = values.get(param);
+                }
+                query.setParameter(i + 1, value);
+            }
+            QueryModifiers modifiers = metadata.getModifiers();
+            if (modifiers.getOffsetAsInteger() != null) {
+                query.setFirstResult(modifiers.getOffsetAsInteger());
+            }
+            if (modifiers.getLimitAsInteger() != null) {
+                query.setMaxResults(modifiers.getLimitAsInteger());
+            }
+            return query;
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<T> transform(List<?> rows) {
+            if (!(projection instanceof FactoryExpression<?> factory)) {
+                return (List<T>) rows;
+            }
+            // Tuple, DTO 프로젝션은 Object[] 로 받아서 직접 생성
+            List<T> results = new ArrayList<>(rows.size());
+            for (Object row : rows) {
+                Object[] args = row instanceof Object[] array ? array : new Object[]{row};
+                results.add((T) factory.newInstance(args));
+            }
+            return results;
+        }
+    }
+}
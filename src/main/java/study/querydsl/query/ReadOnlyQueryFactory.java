@@ -0,0 +1,26 @@
+package study.querydsl.query;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.HibernateHints;
+
+/**
+ * 조회 전용 쿼리 팩토리. 이 팩토리로 만든 쿼리가 로딩한 엔티티는 읽기 전용이라
+ * 하이버네이트가 dirty checking 용 스냅샷(로딩 시점 값 배열)을 만들지 않고 flush 때 검사하지도 않는다.
+ * <p>
+ * 쓰기 트랜잭션이나 OSIV 세션 안에서 대량으로 조회할 때 쓴다.
+ * {@code @Transactional(readOnly = true)} 안에서는 세션 전체가 읽기 전용(FlushMode.MANUAL)이라 힌트가 없어도 같다.
+ * 읽기 전용 엔티티를 수정해도 DB 에 반영되지 않는다.
+ */
+public class ReadOnlyQueryFactory extends JPAQueryFactory {
+
+    public ReadOnlyQueryFactory(EntityManager entityManager) {
+        super(entityManager);
+    }
+
+    @Override
+    public JPAQuery<?> query() {
+        return super.query().setHint(HibernateHints.HINT_READ_ONLY, true);
+    }
+}
@@ -0,0 +1,99 @@
+package study.querydsl.query;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * QueryDSL JPA 에는 over 절이 없어서 템플릿으로 만든다. 하이버네이트 6 HQL 은 윈도우 함수를 그대로 SQL 로 옮긴다.
+ * <pre>
+ * // 회원마다 소속 팀의 평균 나이 (상관 서브쿼리 없이 한 번에)
+ * WindowFunction.avg(member.age).partitionBy(team.id).build()
+ * // 팀 안에서 나이 순위
+ * WindowFunction.rank().partitionBy(team.id).orderBy(member.age.desc()).build()
+ * </pre>
+ */
+public final class WindowFunction<T extends Number & Comparable<?>> {
+
+    private final Class<T> type;
+    private final String function;
+    private final Expression<?> argument;
+    private final List<Expression<?>> partitionBy = new ArrayList<>();
+    private final List<OrderSpecifier<?>> orderBy = new ArrayList<>();
+
+    private WindowFunction(Class<T> type, String function, Expression<?> argument) {
+        this.type = type;
+        this.function = function;
+        this.argument = argument;
+    }
+
+    public static WindowFunction<Double> avg(Expression<? extends Number> expr) {
+        return new WindowFunction<>(Double.class, "avg", expr);
+    }
+
+    /** 정수 컬럼 합계 (하이버네이트는 sum(int) 를 Long 으로 돌려준다) */
+    public static WindowFunction<Long> sum(Expression<? extends Number> expr) {
+        return new WindowFunction<>(Long.class, "sum", expr);
+    }
+
+    public static WindowFunction<Long> count(Expression<?> expr) {
+        return new WindowFunction<>(Long.class, "count", expr);
+    }
+
+    public static WindowFunction<Long> rank() {
+        return new WindowFunction<>(Long.class, "rank", null);
+    }
+
+    public static WindowFunction<Long> denseRank() {
+        return new WindowFunction<>(Long.class, "dense_rank", null);
+    }
+
+    public static WindowFunction<Long> rowNumber() {
+        return new WindowFunction<>(Long.class, "row_number", null);
+    }
+
+    public WindowFunction<T> partitionBy(Expression<?>... exprs) {
+        Collections.addAll(partitionBy, exprs);
+        return this;
+    }
+
+    public WindowFunction<T> orderBy(OrderSpecifier<?>... specifiers) {
+        Collections.addAll(orderBy, specifiers);
+        return this;
+    }
+
+    public NumberExpression<T> build() {
+        List<Object> args = new ArrayList<>();
+        StringBuilder template = new StringBuilder(function).append('(');
+        if (argument != null) {
+            template.append(arg(args, argument));
+        }
+        template.append(") over (");
+        for (int i = 0; i < partitionBy.size(); i++) {
+            template.append(i == 0 ? "partition by " : ", ").append(arg(args, partitionBy.get(i)));
+        }
+        for (int i = 0; i < orderBy.size(); i++) {
+            OrderSpecifier<?> order = orderBy.get(i);
+            template.append(i == 0 ? (partitionBy.isEmpty() ? "order by " : " order by ") : ", ")
+                    .append(arg(args, order.getTarget()))
+                    .append(order.isAscending() ? " asc" : " desc");
+            if (order.getNullHandling() == OrderSpecifier.NullHandling.NullsFirst) {
+                template.append(" nulls first");
+            } else if (order.getNullHandling() == OrderSpecifier.NullHandling.NullsLast) {
+                template.append(" nulls last");
+            }
+        }
+        template.append(')');
+        return Expressions.numberTemplate(type, template.toString(), args.toArray());
+    }
+
+    private static String arg(List<Object> args, Expression<?> expr) {
+        args.add(expr);
+        return "{" + (args.size() - 1) + "}";
+    }
+}
@@ -0,0 +1,70 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.ItemCatalog;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static study.querydsl.entity.QItemCatalog.itemCatalog;
+
+/**
+ * selectFrom(item) 은 Album/Book/Movie 테이블의 union all 로 실행되므로 목록/필터/집계는 item_catalog 에서 조회한다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ItemCatalogRepository {
+
+    private final EntityManager em;
+    private final JPAQueryFactory query;
+
+    public List<ItemCatalog> findPage(long offset, long limit) {
+        return query.selectFrom(itemCatalog)
+                .orderBy(itemCatalog.id.asc())
+                .offset(offset)
+                .limit(limit)
+                .fetch();
+    }
+
+    public List<ItemCatalog> findByPriceBetween(int min, int max, long limit) {
+        return query.selectFrom(itemCatalog)
+                .where(itemCatalog.price.between(min, max))
+                .orderBy(itemCatalog.price.asc(), itemCatalog.id.asc())
+                .limit(limit)
+                .fetch();
+    }
+
+    public Map<String, Long> countByType() {
+        List<Tuple> rows = query.select(itemCatalog.type, itemCatalog.count())
+                .from(itemCatalog)
+                .groupBy(itemCatalog.type)
+                .orderBy(itemCatalog.type.asc())
+                .fetch();
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Tuple row : rows) {
+            counts.put(row.get(itemCatalog.type), row.get(itemCatalog.count()));
+        }
+        return counts;
+    }
+
+    /**
+     * 벌크 연산 등으로 리스너를 거치지 않은 변경이 있을 때 전체를 다시 만든다.
+     */
+    @Transactional
+    public long rebuild() {
+        em.flush();
+        query.delete(itemCatalog).execute();
+        long rows = 0;
+        rows += em.createQuery("insert into ItemCatalog (id, type, name, price) select a.id, 'A', a.name, a.Price from Album a").executeUpdate();
+        rows += em.createQuery("insert into ItemCatalog (id, type, name, price) select b.id, 'B', b.name, b.Price from Book b").executeUpdate();
+        rows += em.createQuery("insert into ItemCatalog (id, type, name, price) select m.id, 'M', m.name, m.Price from Movie m").executeUpdate();
+        em.clear();
+        return rows;
+    }
+}
@@ -0,0 +1,25 @@
+package study.querydsl.repository;
+
+import study.querydsl.entity.Member;
+
+/**
+ * 회원 조회 시 함께 가져올 연관관계. 그 외 연관관계는 지연 로딩(배치 페치)된다.
+ */
+public enum MemberFetchPlan {
+    /** 회원만 */
+    NONE(null),
+    /** 회원 + 팀 */
+    SUMMARY(Member.GRAPH_SUMMARY),
+    /** 회원 + 팀 + 주소 */
+    WITH_ADDRESSES(Member.GRAPH_WITH_ADDRESSES);
+
+    private final String graphName;
+
+    MemberFetchPlan(String graphName) {
+        this.graphName = graphName;
+    }
+
+    public String getGraphName() {
+        return graphName;
+    }
+}
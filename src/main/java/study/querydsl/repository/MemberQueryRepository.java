@@ -0,0 +1,61 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.jpa.impl.JPAQuery;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.metrics.QueryMetrics;
+import study.querydsl.paging.CountStrategy;
+import study.querydsl.paging.KeysetPage;
+import study.querydsl.paging.KeysetPaging;
+import study.querydsl.paging.PageFetcher;
+import study.querydsl.paging.PageResult;
+import study.querydsl.query.ReadOnlyQueryFactory;
+
+import java.util.List;
+
+import static study.querydsl.entity.QMember.member;
+
+@Repository
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class MemberQueryRepository {
+
+    // 이름이 같거나 null 인 회원은 id 로 순서를 고정
+    private static final List<OrderSpecifier<?>> NAME_ORDER =
+            List.of(member.name.asc().nullsLast(), member.id.asc());
+
+    private final EntityManager em;
+    // 조회 결과 엔티티는 수정하지 않으므로 스냅샷 없이 로딩
+    private final ReadOnlyQueryFactory query;
+    private final PageFetcher pageFetcher;
+    private final QueryMetrics queryMetrics;
+
+    public KeysetPage<Member> findPageOrderByName(String cursor, int size) {
+        return KeysetPaging.fetch(query.selectFrom(member), NAME_ORDER, cursor, size);
+    }
+
+    public PageResult<Member> findPageOrderByNameDesc(long offset, long limit, CountStrategy strategy) {
+        return pageFetcher.fetch(
+                query.selectFrom(member).orderBy(member.name.desc()),
+                query.select(member.count()).from(member),
+                offset, limit, strategy);
+    }
+
+    public List<Member> findByTeamName(String teamName, MemberFetchPlan plan) {
+        return queryMetrics.timed("member.findByTeamName", () -> withPlan(query.selectFrom(member)
+                .where(member.team.name.eq(teamName))
+                .orderBy(member.id.asc()), plan)
+                .fetch());
+    }
+
+    private JPAQuery<Member> withPlan(JPAQuery<Member> memberQuery, MemberFetchPlan plan) {
+        if (plan.getGraphName() != null) {
+            memberQuery.setHint("jakarta.persistence.fetchgraph", em.getEntityGraph(plan.getGraphName()));
+        }
+        return memberQuery;
+    }
+}
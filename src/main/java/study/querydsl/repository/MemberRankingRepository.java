@@ -0,0 +1,62 @@
+package study.querydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberRankDto;
+import study.querydsl.dto.MemberTeamAgeDto;
+import study.querydsl.dto.QMemberTeamAgeDto;
+import study.querydsl.query.WindowFunction;
+
+import java.util.List;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 상관 서브쿼리 대신 윈도우 함수로 한 번에 집계한다.
+ */
+@Repository
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class MemberRankingRepository {
+
+    // QueryDSL 은 from 절 서브쿼리를 만들 수 없어서 HQL 파생 테이블로 작성 (하이버네이트 6.1+)
+    private static final String TOP_BY_TEAM = """
+            select new study.querydsl.dto.MemberRankDto(r.id, r.name, r.age, r.teamName, r.rk)
+            from (
+                select m.id as id, m.name as name, m.age as age, t.name as teamName,
+                       rank() over (partition by t.id order by m.age desc) as rk
+                from Member m join m.team t
+            ) r
+            where r.rk <= :n
+            order by r.teamName, r.rk, r.id
+            """;
+
+    private final EntityManager em;
+    private final JPAQueryFactory query;
+
+    /**
+     * 회원과 소속 팀의 평균 나이
+     */
+    public List<MemberTeamAgeDto> findWithTeamAverageAge() {
+        return query
+                .select(new QMemberTeamAgeDto(member.id, member.name, member.age, team.name,
+                        WindowFunction.avg(member.age).partitionBy(team.id).build()))
+                .from(member)
+                .join(member.team, team)
+                .orderBy(member.id.asc())
+                .fetch();
+    }
+
+    /**
+     * 팀마다 나이가 많은 순으로 n 등까지 (동점이면 함께 포함)
+     */
+    public List<MemberRankDto> findTopByTeam(int n) {
+        return em.createQuery(TOP_BY_TEAM, MemberRankDto.class)
+                .setParameter("n", (long) n)
+                .getResultList();
+    }
+}
@@ -0,0 +1,140 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.QMemberTeamDto;
+import study.querydsl.query.QueryTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 화면에 필요한 컬럼만 DTO 로 조회 (엔티티, 영속성 컨텍스트 스냅샷, EAGER 연관관계 로딩 없음)
+ */
+@Repository
+@Transactional(readOnly = true)
+public class MemberSearchRepository {
+
+    private static final Param<String> TEAM_NAME = new Param<>(String.class, "teamName");
+
+    private final EntityManager em;
+    private final JPAQueryFactory query;
+    private final QueryTemplate<MemberTeamDto> memberTeamsByTeamName;
+
+    public MemberSearchRepository(EntityManager em, JPAQueryFactory query) {
+        this.em = em;
+        this.query = query;
+        // 자주 호출되는 모양이라 JPQL 직렬화를 한 번만
+        this.memberTeamsByTeamName = QueryTemplate.of(query
+                .select(memberTeamDto())
+                .from(member)
+                .join(member.team, team)
+                .where(team.name.eq(TEAM_NAME))
+                .orderBy(member.id.asc()));
+    }
+
+    public List<MemberTeamDto> findMemberTeams() {
+        return query
+                .select(memberTeamDto())
+                .from(member)
+                .leftJoin(member.team, team)
+                .orderBy(member.id.asc())
+                .fetch();
+    }
+
+    public List<MemberTeamDto> findMemberTeamsByTeamName(String teamName) {
+        return memberTeamsByTeamName.bind(TEAM_NAME, teamName).fetch(em);
+    }
+
+    /**
+     * 조건이 있는 것만 where 에 넣는다. 조건마다 Member 의 인덱스를 탈 수 있는 모양으로 만든다.
+     */
+    public List<MemberTeamDto> search(MemberSearchCondition condition, long offset, long limit) {
+        JPAQuery<MemberTeamDto> search = query
+                .select(memberTeamDto())
+                .from(member);
+        // left join 이면 member 부터 읽어야 해서 팀 이름 인덱스를 쓸 수 없다
+        if (hasText(condition.getTeamName())) {
+            search.join(member.team, team);
+        } else {
+            search.leftJoin(member.team, team);
+        }
+        return search
+                .where(namePrefix(condition.getNamePrefix()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe()),
+                        teamNameEq(condition.getTeamName()),
+                        cityEq(condition.getCity()),
+                        periodFrom(condition.getPeriodFrom()),
+                        periodTo(condition.getPeriodTo()))
+                .orderBy(member.id.asc())
+                .offset(offset)
+                .limit(limit)
+                .fetch();
+    }
+
+    public List<MemberDto> findMembers() {
+        return query
+                .select(Projections.constructor(MemberDto.class, member.name, member.age))
+                .from(member)
+                .fetch();
+    }
+
+    /**
+     * like 'abc%' 는 파라미터로 바인딩되면 H2 가 인덱스 범위를 만들지 못해서 범위 조건으로 바꾼다.
+     */
+    private static BooleanExpression namePrefix(String prefix) {
+        return hasText(prefix) ? member.name.goe(prefix).and(member.name.lt(prefix + Character.MAX_VALUE)) : null;
+    }
+
+    private static BooleanExpression ageGoe(Integer age) {
+        return age != null ? member.age.goe(age) : null;
+    }
+
+    private static BooleanExpression ageLoe(Integer age) {
+        return age != null ? member.age.loe(age) : null;
+    }
+
+    private static BooleanExpression teamNameEq(String teamName) {
+        return hasText(teamName) ? team.name.eq(teamName) : null;
+    }
+
+    /**
+     * city or second_city 는 인덱스를 하나도 못 쓰므로 각 인덱스로 찾은 id 를 union 해서 pk 로 조회한다.
+     */
+    private static BooleanExpression cityEq(String city) {
+        return hasText(city) ? Expressions.booleanTemplate(
+                "{0} in (select c1.id from Member c1 where c1.address.city = {1}"
+                        + " union select c2.id from Member c2 where c2.address2.city = {1})",
+                member.id, city) : null;
+    }
+
+    private static BooleanExpression periodFrom(LocalDateTime from) {
+        return from != null ? member.period.endDate.goe(from) : null;
+    }
+
+    private static BooleanExpression periodTo(LocalDateTime to) {
+        return to != null ? member.period.startDate.loe(to) : null;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static QMemberTeamDto memberTeamDto() {
+        return new QMemberTeamDto(member.id, member.name, member.age, team.id, team.name);
+    }
+}
@@ -0,0 +1,62 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.QMemberTeamDto;
+import study.querydsl.dto.TeamMembersDto;
+import study.querydsl.metrics.QueryMetrics;
+import study.querydsl.paging.PageFetcher;
+import study.querydsl.paging.PageResult;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+@Repository
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class TeamQueryRepository {
+
+    private final JPAQueryFactory query;
+    private final PageFetcher pageFetcher;
+    private final QueryMetrics queryMetrics;
+
+    /**
+     * team.memberList 를 fetch join 하면서 페이징하면 하이버네이트가 전체를 메모리에서 페이징한다(HHH000104).
+     * 팀만 먼저 페이징하고, 해당 팀들의 회원을 in 쿼리 한 번으로 가져와 붙인다.
+     */
+    public PageResult<TeamMembersDto> findTeamsWithMembers(long offset, long limit) {
+        PageResult<Tuple> teams = pageFetcher.fetch(
+                query.select(team.id, team.name).from(team).orderBy(team.id.asc()),
+                query.select(team.count()).from(team),
+                offset, limit);
+
+        Map<Long, TeamMembersDto> byId = new LinkedHashMap<>();
+        for (Tuple row : teams.getResults()) {
+            Long teamId = row.get(team.id);
+            byId.put(teamId, new TeamMembersDto(teamId, row.get(team.name), new ArrayList<>()));
+        }
+        if (!byId.isEmpty()) {
+            List<MemberTeamDto> members = queryMetrics.timed("team.membersOfTeams", () -> query
+                    .select(new QMemberTeamDto(member.id, member.name, member.age, team.id, team.name))
+                    .from(member)
+                    .join(member.team, team)
+                    .where(team.id.in(byId.keySet()))
+                    .orderBy(member.id.asc())
+                    .fetch());
+            for (MemberTeamDto dto : members) {
+                byId.get(dto.getTeamId()).getMembers().add(dto);
+            }
+        }
+        return new PageResult<>(new ArrayList<>(byId.values()),
+                teams.getOffset(), teams.getLimit(), teams.getTotal(), teams.isCountElided());
+    }
+}
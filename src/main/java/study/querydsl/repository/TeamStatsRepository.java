@@ -0,0 +1,61 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.QTeamStatsDto;
+import study.querydsl.dto.TeamStatsDto;
+
+import java.util.List;
+
+import static study.querydsl.entity.QTeam.team;
+import static study.querydsl.entity.QTeamStats.teamStats;
+
+/**
+ * group 테스트의 팀별 평균 나이, aggregation 테스트의 전체 집계를 team_stats 에서 읽는다.
+ */
+@Repository
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class TeamStatsRepository {
+
+    private final JPAQueryFactory query;
+
+    public TeamStatsDto findByTeamName(String teamName) {
+        return query
+                .select(teamStatsDto())
+                .from(teamStats)
+                .join(team).on(team.id.eq(teamStats.teamId))
+                .where(team.name.eq(teamName))
+                .fetchOne();
+    }
+
+    public List<TeamStatsDto> findAll() {
+        return query
+                .select(teamStatsDto())
+                .from(teamStats)
+                .join(team).on(team.id.eq(teamStats.teamId))
+                .orderBy(team.name.asc())
+                .fetch();
+    }
+
+    /**
+     * 팀 수만큼의 행만 읽는다 (팀 없는 회원 포함)
+     */
+    public TeamStatsDto overall() {
+        Tuple row = query
+                .select(teamStats.memberCount.sum(), teamStats.ageSum.sum(), teamStats.minAge.min(), teamStats.maxAge.max())
+                .from(teamStats)
+                .fetchOne();
+        Long count = row.get(teamStats.memberCount.sum());
+        Long ageSum = row.get(teamStats.ageSum.sum());
+        return new TeamStatsDto(null, count == null ? 0 : count, ageSum == null ? 0 : ageSum,
+                row.get(teamStats.minAge.min()), row.get(teamStats.maxAge.max()));
+    }
+
+    private static QTeamStatsDto teamStatsDto() {
+        return new QTeamStatsDto(team.name, teamStats.memberCount, teamStats.ageSum, teamStats.minAge, teamStats.maxAge);
+    }
+}
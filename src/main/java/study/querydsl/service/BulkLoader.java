@@ -0,0 +1,113 @@
+package study.querydsl.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 대량 저장. chunk 단위로 persist -> flush -> clear 하고 chunk 마다 커밋한다.
+ * <p>
+ * insert 는 hibernate.jdbc.batch_size 로 묶이고, id 는 pooled 시퀀스에서 allocationSize 만큼 미리 받아온다.
+ * 영속성 컨텍스트는 chunk 크기 이상 커지지 않는다.
+ * <p>
+ * chunk 마다 커밋하고 clear 하므로 이미 열린 트랜잭션 안에서는 부를 수 없다 (커밋도 안 되고 호출한 쪽의 엔티티까지 분리된다).
+ */
+@Slf4j
+@Service
+public class BulkLoader {
+
+    private final EntityManager em;
+    private final TransactionTemplate tx;
+    private final int defaultChunkSize;
+
+    public BulkLoader(EntityManager em, PlatformTransactionManager transactionManager,
+                      @Value("${bulk.chunk-size:1000}") int defaultChunkSize) {
+        this.em = em;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.defaultChunkSize = defaultChunkSize;
+    }
+
+    public long persistAll(Iterator<?> entities, BulkProgressListener listener) {
+        return persistAll(entities, defaultChunkSize, listener);
+    }
+
+    public long persistAll(Iterator<?> entities, int chunkSize, BulkProgressListener listener) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("BulkLoader commits each chunk itself; call it outside a transaction");
+        }
+        long start = System.currentTimeMillis();
+        long loaded = 0;
+        List<Object> chunk = new ArrayList<>(chunkSize);
+        while (entities.hasNext()) {
+            chunk.add(entities.next());
+            if (chunk.size() == chunkSize) {
+                loaded += persistChunk(chunk);
+                listener.onChunk(loaded, System.currentTimeMillis() - start);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            loaded += persistChunk(chunk);
+            listener.onChunk(loaded, System.currentTimeMillis() - start);
+        }
+        log.info("bulk load finished: {} rows in {}ms", loaded, System.currentTimeMillis() - start);
+        return loaded;
+    }
+
+    /**
+     * teamCount 개의 팀을 만들고 memberCount 명의 회원을 팀에 골고루 배정한다.
+     */
+    public long loadTeamsAndMembers(int teamCount, long memberCount, int chunkSize, BulkProgressListener listener) {
+        List<Team> teams = new ArrayList<>(teamCount);
+        for (int i = 0; i < teamCount; i++) {
+            teams.add(new Team("team" + i));
+        }
+        persistAll(teams.iterator(), chunkSize, BulkProgressListener.NONE);
+
+        Iterator<Member> members = new Iterator<>() {
+            long next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < memberCount;
+            }
+
+            @Override
+            public Member next() {
+                long i = next++;
+                // 분리된 Team 을 참조해도 FK 값만 사용하므로 다시 조회하지 않는다
+                return new Member("member" + i, (int) (i % 100), teams.get((int) (i % teamCount)));
+            }
+        };
+        return persistAll(members, chunkSize, listener);
+    }
+
+    private int persistChunk(List<Object> chunk) {
+        int size = chunk.size();
+        tx.executeWithoutResult(status -> {
+            // 방금 넣은 행을 2차 캐시(member 등)에 채우지 않는다. 대량 적재가 자주 읽는 항목을 밀어내지 않도록
+            em.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+            for (Object entity : chunk) {
+                em.persist(entity);
+            }
+            em.flush();
+            em.clear();
+        });
+        chunk.clear();
+        return size;
+    }
+}
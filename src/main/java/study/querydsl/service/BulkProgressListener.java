@@ -0,0 +1,9 @@
+package study.querydsl.service;
+
+@FunctionalInterface
+public interface BulkProgressListener {
+    BulkProgressListener NONE = (loaded, elapsedMillis) -> {
+    };
+
+    void onChunk(long loaded, long elapsedMillis);
+}
@@ -0,0 +1,131 @@
+package study.querydsl.service;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.engine.spi.CollectionEntry;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.autocomplete.MemberNameIndex;
+import study.querydsl.entity.AddressEntity;
+import study.querydsl.entity.Item;
+import study.querydsl.entity.Member;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+import static study.querydsl.entity.QItem.item;
+import static study.querydsl.entity.QItemCatalog.itemCatalog;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 변경 감지 대신 update/delete 한 번으로 처리하는 벌크 연산.
+ * 실행 전에 flush 하고, 실행 후 {@link PersistenceContextSync} 에 따라 영속성 컨텍스트를 맞춘다.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class BulkUpdateService {
+
+    private final EntityManager em;
+    private final JPAQueryFactory query;
+    private final TeamStatsService teamStatsService;
+    private final MemberNameIndex memberNameIndex;
+
+    public long addAge(String teamName, int years, PersistenceContextSync sync) {
+        List<Long> teamIds = query.select(team.id).from(team).where(team.name.eq(teamName)).fetch();
+        if (teamIds.isEmpty()) {
+            return 0;
+        }
+        long count = bulk(Member.class, sync, () -> query
+                .update(member)
+                .set(member.age, member.age.add(years))
+                .where(member.team.id.in(teamIds))
+                .execute());
+        // 벌크 연산은 리스너를 거치지 않으므로 team_stats 를 다시 집계
+        teamStatsService.recompute(teamIds);
+        return count;
+    }
+
+    public long deleteMembersOlderThan(int age, PersistenceContextSync sync) {
+        return bulk(Member.class, sync, () -> {
+            // AddressEntity 는 member_id 조인 컬럼만 가지고 있어 JPQL 로 지울 수 없다 (orphanRemoval 대상)
+            // 영향받는 테이블을 알려주지 않으면 네이티브 쿼리 실행 시 2차 캐시 전체가 무효화된다
+            em.createNativeQuery("delete from address_entity where member_id in " +
+                            "(select m.member_id from member m where m.age > :age)")
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedEntityClass(AddressEntity.class)
+                    .setParameter("age", age)
+                    .executeUpdate();
+            // favorite_food, member_product 같은 컬렉션 테이블은 하이버네이트가 같이 지운다
+            long deleted = query.delete(member).where(member.age.gt(age)).execute();
+            teamStatsService.rebuild();
+            // 지운 회원의 이름도 리스너로 전달되지 않는다
+            memberNameIndex.rebuildAfterCommit();
+            return deleted;
+        });
+    }
+
+    // 벌크 연산은 리스너를 거치지 않으므로 item_catalog 도 같은 조건으로 직접 맞춘다
+    public long discountItems(int minPrice, int amount, PersistenceContextSync sync) {
+        return bulk(Item.class, sync, () -> {
+            query.update(itemCatalog)
+                    .set(itemCatalog.price, itemCatalog.price.subtract(amount))
+                    .where(itemCatalog.price.goe(minPrice))
+                    .execute();
+            return query.update(item)
+                    .set(item.Price, item.Price.subtract(amount))
+                    .where(item.Price.goe(minPrice))
+                    .execute();
+        });
+    }
+
+    public long deleteItemsCheaperThan(int price, PersistenceContextSync sync) {
+        return bulk(Item.class, sync, () -> {
+            query.delete(itemCatalog).where(itemCatalog.price.lt(price)).execute();
+            return query.delete(item).where(item.Price.lt(price)).execute();
+        });
+    }
+
+    private long bulk(Class<?> affected, PersistenceContextSync sync, Supplier<Long> operation) {
+        em.flush();
+        long count = operation.get();
+        if (sync == PersistenceContextSync.CLEAR) {
+            em.clear();
+        } else {
+            evict(affected);
+        }
+        return count;
+    }
+
+    private void evict(Class<?> affected) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        PersistenceContext context = session.getPersistenceContextInternal();
+        Set<Object> stale = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Map.Entry<Object, EntityEntry> entry : context.reentrantSafeEntityEntries()) {
+            if (affected.isInstance(entry.getKey())) {
+                stale.add(entry.getKey());
+            }
+        }
+        // 바뀐 엔티티를 담고 있는 초기화된 컬렉션(Team.memberList 등)은 소유자째 분리한다
+        for (Map.Entry<PersistentCollection<?>, CollectionEntry> entry : new ArrayList<>(context.getCollectionEntries().entrySet())) {
+            CollectionPersister persister = entry.getValue().getLoadedPersister();
+            if (persister != null && entry.getKey().wasInitialized()
+                    && affected.isAssignableFrom(persister.getElementType().getReturnedClass())) {
+                stale.add(entry.getKey().getOwner());
+            }
+        }
+        for (Object entity : stale) {
+            if (session.contains(entity)) {
+                session.evict(entity);
+            }
+        }
+    }
+}
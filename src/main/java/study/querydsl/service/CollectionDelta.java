@@ -0,0 +1,11 @@
+package study.querydsl.service;
+
+/**
+ * 컬렉션 변경에서 실제로 insert/delete 된 행 수
+ */
+public record CollectionDelta(int added, int removed) {
+
+    public boolean isEmpty() {
+        return added == 0 && removed == 0;
+    }
+}
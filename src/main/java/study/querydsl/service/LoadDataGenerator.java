@@ -0,0 +1,170 @@
+package study.querydsl.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import study.querydsl.entity.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * 부하 테스트용 데이터를 {@link BulkLoader} 로 생성한다. 같은 seed 면 같은 데이터가 만들어진다.
+ * <ul>
+ *     <li>팀 크기는 Zipf 분포 (소수의 큰 팀, 다수의 작은 팀)</li>
+ *     <li>나이는 35 세 중심의 정규분포, 일부 회원은 이름이 null</li>
+ *     <li>상품 구매 횟수도 Zipf 분포 (인기 상품 편중)</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LoadDataGenerator {
+
+    private final BulkLoader bulkLoader;
+
+    public long generate(LoadDataSpec spec, BulkProgressListener listener) {
+        SplittableRandom random = new SplittableRandom(spec.seed());
+
+        List<Team> teams = new ArrayList<>(spec.teams());
+        for (int i = 0; i < spec.teams(); i++) {
+            teams.add(new Team("team" + i));
+        }
+        List<Product> products = new ArrayList<>(spec.products());
+        for (int i = 0; i < spec.products(); i++) {
+            products.add(new Product());
+        }
+        List<Object> reference = new ArrayList<>(teams);
+        reference.addAll(products);
+        long loaded = bulkLoader.persistAll(reference.iterator(), BulkProgressListener.NONE);
+
+        ZipfSampler teamSampler = new ZipfSampler(spec.teams(), spec.teamSkew());
+        ZipfSampler productSampler = new ZipfSampler(spec.products(), 1.0);
+        loaded += bulkLoader.persistAll(new MemberIterator(spec, random, teams, products, teamSampler, productSampler),
+                listener);
+        loaded += bulkLoader.persistAll(new ItemIterator(spec.items(), random.split()), BulkProgressListener.NONE);
+        log.info("generated {} rows for {}", loaded, spec);
+        return loaded;
+    }
+
+    /**
+     * 사물함이 있는 회원은 사물함을 먼저 내보내 같은 chunk 안에서 먼저 저장되게 한다.
+     */
+    private static final class MemberIterator implements Iterator<Object> {
+        private final LoadDataSpec spec;
+        private final SplittableRandom random;
+        private final List<Team> teams;
+        private final List<Product> products;
+        private final ZipfSampler teamSampler;
+        private final ZipfSampler productSampler;
+        private long next;
+        private Member pending;
+
+        MemberIterator(LoadDataSpec spec, SplittableRandom random, List<Team> teams, List<Product> products,
+                       ZipfSampler teamSampler, ZipfSampler productSampler) {
+            this.spec = spec;
+            this.random = random;
+            this.teams = teams;
+            this.products = products;
+            this.teamSampler = teamSampler;
+            this.productSampler = productSampler;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pending != null || next < spec.members();
+        }
+
+        @Override
+        public Object next() {
+            if (pending != null) {
+                Member member = pending;
+                pending = null;
+                return member;
+            }
+            if (next >= spec.members()) {
+                throw new NoSuchElementException();
+            }
+            long i = next++;
+            String name = random.nextDouble() < spec.nullNameRate() ? null : "member" + i;
+            int age = (int) Math.max(1, Math.min(99, Math.round(35 + random.nextGaussian() * 12)));
+            // 분리된 Team, Product 를 참조해도 FK 값만 사용한다
+            Member member = new Member(name, age, teams.get(teamSampler.sample(random)));
+            int productCount = random.nextInt(spec.maxProductsPerMember() + 1);
+            for (int p = 0; p < productCount; p++) {
+                Product product = products.get(productSampler.sample(random));
+                if (!member.getProducts().contains(product)) {
+                    member.getProducts().add(product);
+                }
+            }
+            if (random.nextDouble() < spec.lockerRate()) {
+                Locker locker = new Locker("locker" + i);
+                member.setLocker(locker);
+                pending = member;
+                return locker;
+            }
+            return member;
+        }
+    }
+
+    private static final class ItemIterator implements Iterator<Item> {
+        private final long count;
+        private final SplittableRandom random;
+        private long next;
+
+        ItemIterator(long count, SplittableRandom random) {
+            this.count = count;
+            this.random = random;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < count;
+        }
+
+        @Override
+        public Item next() {
+            if (next >= count) {
+                throw new NoSuchElementException();
+            }
+            long i = next++;
+            Item item = switch (random.nextInt(3)) {
+                case 0 -> new Book();
+                case 1 -> new Album();
+                default -> new Movie();
+            };
+            item.setName("item" + i);
+            // 가격은 로그정규 분포 (대부분 저가, 일부 고가)
+            item.setPrice((int) Math.min(1_000_000, Math.round(Math.exp(9 + random.nextGaussian()))));
+            return item;
+        }
+    }
+
+    /**
+     * rank 가 k 인 항목이 1/k^s 에 비례하는 확률로 뽑힌다.
+     */
+    static final class ZipfSampler {
+        private final double[] cumulative;
+
+        ZipfSampler(int size, double exponent) {
+            cumulative = new double[size];
+            double sum = 0;
+            for (int k = 0; k < size; k++) {
+                sum += 1.0 / Math.pow(k + 1, exponent);
+                cumulative[k] = sum;
+            }
+            for (int k = 0; k < size; k++) {
+                cumulative[k] /= sum;
+            }
+        }
+
+        int sample(SplittableRandom random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(cumulative.length - 1, index >= 0 ? index : -index - 1);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package study.querydsl.service;
+
+/**
+ * 부하 테스트용 데이터 분포.
+ *
+ * @param teamSkew     팀 크기의 Zipf 지수 (0 이면 균등, 1 이면 1등 팀이 2등의 두 배)
+ * @param nullNameRate 이름이 null 인 회원 비율 (sort 테스트의 nullsLast 경로)
+ * @param lockerRate   사물함이 있는 회원 비율
+ */
+public record LoadDataSpec(long members, int teams, double teamSkew, double nullNameRate, double lockerRate,
+                           int products, int maxProductsPerMember, long items, long seed) {
+
+    public static LoadDataSpec of(long members) {
+        return new LoadDataSpec(members, (int) Math.max(1, Math.min(1_000, members / 100)), 1.0, 0.02, 0.3,
+                100, 3, members / 10, 42L);
+    }
+
+    public LoadDataSpec {
+        if (members < 0 || teams <= 0 || products <= 0 || items < 0) {
+            throw new IllegalArgumentException("invalid spec");
+        }
+    }
+}
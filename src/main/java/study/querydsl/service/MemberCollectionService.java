@@ -0,0 +1,73 @@
+package study.querydsl.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Product;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Member.Foods, Member.products 를 원하는 상태로 맞춘다.
+ * 컬렉션 인스턴스를 바꾸면(setFoods(new HashSet<>(...))) 하이버네이트가 전체 삭제 후 다시 넣으므로
+ * 영속 컬렉션에서 빠진 것만 remove, 새로운 것만 add 한다. 변경 행은 jdbc batch 로 묶인다.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class MemberCollectionService {
+
+    private final EntityManager em;
+
+    public CollectionDelta updateFoods(Long memberId, Set<String> foods) {
+        Set<String> current = findMember(memberId).getFoods();
+        int removed = 0;
+        for (String food : new HashSet<>(current)) {
+            if (!foods.contains(food)) {
+                current.remove(food);
+                removed++;
+            }
+        }
+        int added = 0;
+        for (String food : foods) {
+            if (current.add(food)) {
+                added++;
+            }
+        }
+        return new CollectionDelta(added, removed);
+    }
+
+    public CollectionDelta updateProducts(Long memberId, Set<Long> productIds) {
+        Set<Product> current = findMember(memberId).getProducts();
+        Set<Long> existing = new HashSet<>();
+        int removed = 0;
+        for (Product product : new HashSet<>(current)) {
+            // 프록시여도 id 는 초기화 없이 읽는다
+            if (productIds.contains(product.getId())) {
+                existing.add(product.getId());
+            } else {
+                current.remove(product);
+                removed++;
+            }
+        }
+        int added = 0;
+        for (Long productId : productIds) {
+            if (!existing.contains(productId)) {
+                current.add(em.getReference(Product.class, productId));
+                added++;
+            }
+        }
+        return new CollectionDelta(added, removed);
+    }
+
+    private Member findMember(Long memberId) {
+        Member member = em.find(Member.class, memberId);
+        if (member == null) {
+            throw new IllegalArgumentException("member not found: " + memberId);
+        }
+        return member;
+    }
+}
@@ -0,0 +1,112 @@
+package study.querydsl.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.QMemberTeamDto;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 전체 회원을 List 로 모으지 않고 커서로 읽으면서 바로 출력 스트림에 쓴다.
+ * DTO 로 조회하므로 영속성 컨텍스트에 엔티티가 쌓이지 않아 행 수와 무관하게 메모리가 일정하다.
+ */
+@Service
+@RequiredArgsConstructor
+public class MemberExportService {
+
+    public enum Format {NDJSON, CSV}
+
+    private final JPAQueryFactory query;
+    private final ObjectMapper objectMapper;
+
+    @Value("${export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Transactional(readOnly = true)
+    public long export(OutputStream out, Format format) throws IOException {
+        try (Stream<MemberTeamDto> rows = query
+                .select(new QMemberTeamDto(member.id, member.name, member.age, team.id, team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .orderBy(member.id.asc())
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .stream()) {
+            return format == Format.NDJSON ? writeNdjson(rows.iterator(), out) : writeCsv(rows.iterator(), out);
+        }
+    }
+
+    private long writeNdjson(Iterator<MemberTeamDto> rows, OutputStream out) throws IOException {
+        long count = 0;
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(new NonClosingOutputStream(out));
+        generator.setRootValueSeparator(null);
+        while (rows.hasNext()) {
+            generator.writeObject(rows.next());
+            generator.writeRaw('\n');
+            count++;
+        }
+        generator.close();
+        return count;
+    }
+
+    private long writeCsv(Iterator<MemberTeamDto> rows, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new NonClosingOutputStream(out), StandardCharsets.UTF_8));
+        writer.write("member_id,name,age,team_id,team_name\n");
+        while (rows.hasNext()) {
+            MemberTeamDto row = rows.next();
+            writer.write(String.valueOf(row.getMemberId()));
+            writer.write(',');
+            writer.write(csv(row.getName()));
+            writer.write(',');
+            writer.write(Integer.toString(row.getAge()));
+            writer.write(',');
+            writer.write(row.getTeamId() == null ? "" : row.getTeamId().toString());
+            writer.write(',');
+            writer.write(csv(row.getTeamName()));
+            writer.write('\n');
+            count++;
+        }
+        writer.close();
+        return count;
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    // gzip 등 바깥 스트림은 호출한 쪽에서 닫는다
+    private static class NonClosingOutputStream extends FilterOutputStream {
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
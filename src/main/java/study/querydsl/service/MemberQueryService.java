@@ -0,0 +1,74 @@
+package study.querydsl.service;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberRankDto;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.TeamMembersDto;
+import study.querydsl.dto.TeamStatsDto;
+import study.querydsl.entity.Member;
+import study.querydsl.paging.PageResult;
+import study.querydsl.repository.MemberRankingRepository;
+import study.querydsl.repository.MemberSearchRepository;
+import study.querydsl.repository.TeamQueryRepository;
+import study.querydsl.repository.TeamStatsRepository;
+
+import java.util.List;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 조회 API 의 트랜잭션 경계. OSIV 를 끄므로 컨트롤러에 넘기기 전에 필요한 데이터를 모두 로딩해서 DTO 로 만든다.
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class MemberQueryService {
+
+    private final JPAQueryFactory query;
+    private final MemberSearchRepository memberSearchRepository;
+    private final MemberRankingRepository memberRankingRepository;
+    private final TeamQueryRepository teamQueryRepository;
+    private final TeamStatsRepository teamStatsRepository;
+
+    /**
+     * 엔티티가 필요한 경우: team 을 fetch join 해서 트랜잭션 안에서 DTO 로 변환
+     */
+    public MemberTeamDto findMember(Long memberId) {
+        Member found = query
+                .selectFrom(member)
+                .leftJoin(member.team, team).fetchJoin()
+                .where(member.id.eq(memberId))
+                .fetchOne();
+        if (found == null) {
+            return null;
+        }
+        return new MemberTeamDto(found.getId(), found.getName(), found.getAge(),
+                found.getTeam() == null ? null : found.getTeam().getId(),
+                found.getTeam() == null ? null : found.getTeam().getName());
+    }
+
+    public List<MemberTeamDto> findMembersOfTeam(String teamName) {
+        return memberSearchRepository.findMemberTeamsByTeamName(teamName);
+    }
+
+    public List<MemberTeamDto> search(MemberSearchCondition condition, long offset, long limit) {
+        return memberSearchRepository.search(condition, offset, limit);
+    }
+
+    public List<MemberRankDto> findTopByTeam(int n) {
+        return memberRankingRepository.findTopByTeam(n);
+    }
+
+    public PageResult<TeamMembersDto> findTeams(long offset, long limit) {
+        return teamQueryRepository.findTeamsWithMembers(offset, limit);
+    }
+
+    public List<TeamStatsDto> findTeamStats() {
+        return teamStatsRepository.findAll();
+    }
+}
@@ -0,0 +1,11 @@
+package study.querydsl.service;
+
+/**
+ * 벌크 연산은 영속성 컨텍스트를 거치지 않으므로 실행 후 남아있는 엔티티를 정리하는 방식.
+ */
+public enum PersistenceContextSync {
+    /** 영속성 컨텍스트 전체를 비운다 */
+    CLEAR,
+    /** 벌크 연산 대상 타입의 엔티티와, 그 엔티티를 담은 초기화된 컬렉션의 소유자만 준영속으로 만든다 */
+    EVICT_AFFECTED
+}
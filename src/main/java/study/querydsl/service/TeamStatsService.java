@@ -0,0 +1,107 @@
+package study.querydsl.service;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.TeamStats;
+import study.querydsl.listener.TeamStatsSql;
+
+import java.util.*;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeamStats.teamStats;
+
+/**
+ * team_stats 재집계와 정합성 검사.
+ * 리스너를 거치지 않는 벌크 연산 이후나 주기적인 검사(team-stats.check-cron)에서 사용한다.
+ */
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class TeamStatsService {
+
+    private final EntityManager em;
+    private final JPAQueryFactory query;
+
+    public void rebuild() {
+        em.flush();
+        em.unwrap(Session.class).doWork(TeamStatsSql::rebuild);
+    }
+
+    public void recompute(Collection<Long> teamIds) {
+        em.flush();
+        em.unwrap(Session.class).doWork(connection -> {
+            for (Long teamId : teamIds) {
+                TeamStatsSql.recompute(connection, teamId);
+            }
+        });
+    }
+
+    /**
+     * @return 실제 member 집계와 다른 team_stats 의 팀 id
+     */
+    @Transactional(readOnly = true)
+    public Set<Long> findInconsistentTeams() {
+        return findInconsistent(null);
+    }
+
+    /**
+     * @param teamIds 검사할 팀 ({@link TeamStats#NO_TEAM} 은 팀이 없는 회원)
+     */
+    @Transactional(readOnly = true)
+    public Set<Long> findInconsistentTeams(Collection<Long> teamIds) {
+        return findInconsistent(teamIds);
+    }
+
+    private Set<Long> findInconsistent(Collection<Long> teamIds) {
+        Predicate memberScope = null;
+        Predicate statsScope = null;
+        if (teamIds != null) {
+            memberScope = teamIds.contains(TeamStats.NO_TEAM)
+                    ? member.team.id.in(teamIds).or(member.team.isNull())
+                    : member.team.id.in(teamIds);
+            statsScope = teamStats.teamId.in(teamIds);
+        }
+
+        Map<Long, List<Object>> actual = new HashMap<>();
+        for (Tuple row : query
+                .select(member.team.id, member.count(), member.age.sum().longValue(), member.age.min(), member.age.max())
+                .from(member)
+                .where(memberScope)
+                .groupBy(member.team.id)
+                .fetch()) {
+            Long teamId = row.get(member.team.id);
+            actual.put(teamId == null ? TeamStats.NO_TEAM : teamId, List.of(
+                    row.get(member.count()), row.get(member.age.sum().longValue()),
+                    row.get(member.age.min()), row.get(member.age.max())));
+        }
+
+        Set<Long> inconsistent = new TreeSet<>();
+        for (TeamStats stats : query.selectFrom(teamStats).where(statsScope).fetch()) {
+            List<Object> expected = actual.remove(stats.getTeamId());
+            List<Object> stored = Arrays.asList(stats.getMemberCount(), stats.getAgeSum(), stats.getMinAge(), stats.getMaxAge());
+            if (!stored.equals(expected) && !(expected == null && stats.getMemberCount() == 0)) {
+                inconsistent.add(stats.getTeamId());
+            }
+        }
+        inconsistent.addAll(actual.keySet()); // 집계 행이 없는 팀
+        return inconsistent;
+    }
+
+    @Scheduled(cron = "${team-stats.check-cron:-}")
+    public void checkAndRepair() {
+        Set<Long> inconsistent = findInconsistentTeams();
+        if (!inconsistent.isEmpty()) {
+            log.warn("team_stats inconsistent for teams {}, recomputing", inconsistent);
+            recompute(inconsistent);
+        }
+    }
+}
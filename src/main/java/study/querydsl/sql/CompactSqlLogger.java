@@ -0,0 +1,133 @@
+package study.querydsl.sql;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 운영용 SQL 로그 (sql-log.mode=compact).
+ * <p>
+ * 느린 쿼리(slow-threshold-ms 이상), 실패한 쿼리, sample-rate 비율로 뽑은 쿼리만 큐에 넣고
+ * 한 줄 JSON 변환과 출력은 별도 스레드에서 한다. 큐가 가득 차면 버리고 개수만 센다.
+ * 이 모드에서는 P6SpyFormatter 의 pretty 출력을 끈다 (decorator.datasource.p6spy.enable-logging=false).
+ */
+@Slf4j(topic = "sql")
+@Component
+@ConditionalOnProperty(name = "sql-log.mode", havingValue = "compact")
+public class CompactSqlLogger extends JdbcEventListener {
+
+    private final long slowThresholdNanos;
+    private final double sampleRate;
+    private final BlockingQueue<Entry> queue;
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public CompactSqlLogger(@Value("${sql-log.slow-threshold-ms:100}") long slowThresholdMs,
+                            @Value("${sql-log.sample-rate:0}") double sampleRate,
+                            @Value("${sql-log.queue-size:10000}") int queueSize) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        this.sampleRate = sampleRate;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.writer = new Thread(this::drain, "sql-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        if (e == null && timeElapsedNanos < slowThresholdNanos && !sampled()) {
+            return;
+        }
+        Entry entry = new Entry(statementInformation.getConnectionInformation().getConnectionId(),
+                timeElapsedNanos, statementInformation.getSqlWithValues(), e == null ? null : e.getMessage());
+        if (!queue.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private boolean sampled() {
+        return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry entry = queue.poll(1, TimeUnit.SECONDS);
+                if (entry != null) {
+                    log.info(format(entry));
+                }
+                long lost = dropped.sumThenReset();
+                if (lost > 0) {
+                    log.warn("{\"dropped\":{}}", lost);
+                }
+            } catch (InterruptedException ie) {
+                running = false;
+            }
+        }
+    }
+
+    static String format(Entry entry) {
+        StringBuilder sb = new StringBuilder(entry.sql.length() + 64);
+        sb.append("{\"elapsedMs\":").append(TimeUnit.NANOSECONDS.toMillis(entry.elapsedNanos))
+                .append(",\"connectionId\":").append(entry.connectionId)
+                .append(",\"sql\":\"");
+        appendCompact(sb, entry.sql);
+        sb.append('"');
+        if (entry.error != null) {
+            sb.append(",\"error\":\"");
+            appendCompact(sb, entry.error);
+            sb.append('"');
+        }
+        return sb.append('}').toString();
+    }
+
+    // 연속된 공백/개행은 공백 하나로, JSON 문자열에 필요한 문자는 이스케이프
+    private static void appendCompact(StringBuilder sb, String text) {
+        boolean started = false;
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = true;
+                continue;
+            }
+            if (space && started) {
+                sb.append(' ');
+            }
+            started = true;
+            space = false;
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    record Entry(int connectionId, long elapsedNanos, String sql, String error) {
+    }
+}
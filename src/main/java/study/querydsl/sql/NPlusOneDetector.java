@@ -0,0 +1,134 @@
+package study.querydsl.sql;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 같은 fingerprint 의 select 가 한 범위(요청, 트랜잭션, 테스트) 안에서 threshold 번을 넘게 실행되면 N+1 로 본다.
+ * <ul>
+ *     <li>범위는 {@link #begin}/{@link #end} 로 열고 닫는다. 겹쳐 열 수 있고(테스트 안의 요청 등),
+ *     문장은 열린 범위 모두에 세며, end 는 가장 안쪽 범위만 닫는다</li>
+ *     <li>n-plus-one.mode=log 면 트랜잭션마다 범위를 따로 두고, 끝날 때 위반을 로그로 남긴다</li>
+ * </ul>
+ * 열린 범위가 없으면 아무것도 하지 않는다.
+ */
+@Slf4j
+@Component
+public class NPlusOneDetector extends JdbcEventListener {
+
+    private static final ThreadLocal<Deque<QueryScope>> SCOPES = new ThreadLocal<>();
+    private static final Object TRANSACTION_SCOPE = new Object();
+
+    private final boolean perTransaction;
+    private final int threshold;
+
+    public NPlusOneDetector(@Value("${n-plus-one.mode:off}") String mode,
+                            @Value("${n-plus-one.threshold:10}") int threshold) {
+        this.perTransaction = "log".equals(mode);
+        this.threshold = threshold;
+    }
+
+    public static void begin(String name, int threshold) {
+        Deque<QueryScope> scopes = SCOPES.get();
+        if (scopes == null) {
+            scopes = new ArrayDeque<>();
+            SCOPES.set(scopes);
+        }
+        scopes.push(new QueryScope(name, threshold));
+    }
+
+    /**
+     * @return 닫은 (가장 안쪽) 범위, 열린 범위가 없으면 null. 바깥 범위는 계속 열려 있다
+     */
+    public static QueryScope end() {
+        Deque<QueryScope> scopes = SCOPES.get();
+        if (scopes == null) {
+            return null;
+        }
+        QueryScope scope = scopes.poll();
+        if (scopes.isEmpty()) {
+            SCOPES.remove();
+        }
+        return scope;
+    }
+
+    /**
+     * @return 현재 트랜잭션의 범위, 트랜잭션이 없거나 아직 select 가 없었으면 null
+     */
+    public static QueryScope transactionScope() {
+        return TransactionSynchronizationManager.isSynchronizationActive()
+                ? (QueryScope) TransactionSynchronizationManager.getResource(TRANSACTION_SCOPE) : null;
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        Deque<QueryScope> scopes = SCOPES.get();
+        boolean inTransaction = perTransaction && TransactionSynchronizationManager.isSynchronizationActive();
+        if (scopes == null && !inTransaction) {
+            return;
+        }
+        String fingerprint = SqlFingerprint.of(statementInformation.getSql());
+        // 시퀀스 조회는 id 를 미리 받아오는 것이라 제외
+        if (!fingerprint.startsWith("select") || fingerprint.contains("next value for")) {
+            return;
+        }
+        if (scopes != null) {
+            for (QueryScope scope : scopes) {
+                scope.record(fingerprint);
+            }
+        }
+        if (inTransaction) {
+            openTransactionScope().record(fingerprint);
+        }
+    }
+
+    /**
+     * 트랜잭션의 첫 select 에서 범위를 열고, 트랜잭션이 끝나면 닫는다.
+     */
+    private QueryScope openTransactionScope() {
+        QueryScope scope = (QueryScope) TransactionSynchronizationManager.getResource(TRANSACTION_SCOPE);
+        if (scope == null) {
+            String name = TransactionSynchronizationManager.getCurrentTransactionName();
+            scope = new QueryScope("transaction " + (name != null ? name : "(unnamed)"), threshold);
+            TransactionSynchronizationManager.bindResource(TRANSACTION_SCOPE, scope);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionScopeSynchronization(scope));
+        }
+        return scope;
+    }
+
+    private static final class TransactionScopeSynchronization implements TransactionSynchronization {
+        private final QueryScope scope;
+
+        private TransactionScopeSynchronization(QueryScope scope) {
+            this.scope = scope;
+        }
+
+        // REQUIRES_NEW 로 멈춘 동안 안쪽 트랜잭션은 자기 범위를 연다
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_SCOPE);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(TRANSACTION_SCOPE, scope);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_SCOPE);
+            for (NPlusOneViolation violation : scope.getViolations()) {
+                log.warn("N+1 in {}: {}", scope.getName(), violation);
+            }
+        }
+    }
+}
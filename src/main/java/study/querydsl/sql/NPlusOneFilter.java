@@ -0,0 +1,42 @@
+package study.querydsl.sql;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 운영용: 요청마다 N+1 을 세고 로그만 남긴다 (n-plus-one.mode=log).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "n-plus-one.mode", havingValue = "log")
+public class NPlusOneFilter extends OncePerRequestFilter {
+
+    private final int threshold;
+
+    public NPlusOneFilter(@Value("${n-plus-one.threshold:10}") int threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        NPlusOneDetector.begin(request.getMethod() + " " + request.getRequestURI(), threshold);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            QueryScope scope = NPlusOneDetector.end();
+            for (NPlusOneViolation violation : scope.getViolations()) {
+                log.warn("N+1 in {}: {}", scope.getName(), violation);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package study.querydsl.sql;
+
+import lombok.Getter;
+
+@Getter
+public class NPlusOneViolation {
+    private final String fingerprint;
+    private final String callSite; // 임계치를 넘긴 쿼리를 실행한 애플리케이션 코드 위치
+    private int count;
+
+    NPlusOneViolation(String fingerprint, String callSite, int count) {
+        this.fingerprint = fingerprint;
+        this.callSite = callSite;
+        this.count = count;
+    }
+
+    void setCount(int count) {
+        this.count = count;
+    }
+
+    @Override
+    public String toString() {
+        return count + "x [" + fingerprint + "] at " + callSite;
+    }
+}
@@ -0,0 +1,58 @@
+package study.querydsl.sql;
+
+import java.util.*;
+
+/**
+ * 요청, 트랜잭션 또는 테스트 하나 동안 실행된 select 를 fingerprint 별로 센다. 한 스레드에서만 사용한다.
+ */
+public class QueryScope {
+
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private final String name;
+    private final int threshold;
+    private final Map<String, int[]> counts = new HashMap<>();
+    private final Map<String, NPlusOneViolation> violations = new LinkedHashMap<>();
+
+    QueryScope(String name, int threshold) {
+        this.name = name;
+        this.threshold = threshold;
+    }
+
+    void record(String fingerprint) {
+        int[] count = counts.computeIfAbsent(fingerprint, k -> new int[1]);
+        count[0]++;
+        if (count[0] == threshold + 1) {
+            // 스택 추적은 임계치를 넘는 순간 한 번만
+            violations.put(fingerprint, new NPlusOneViolation(fingerprint, callSite(), count[0]));
+        } else if (count[0] > threshold + 1) {
+            violations.get(fingerprint).setCount(count[0]);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getStatementCount() {
+        int total = 0;
+        for (int[] count : counts.values()) {
+            total += count[0];
+        }
+        return total;
+    }
+
+    public List<NPlusOneViolation> getViolations() {
+        return new ArrayList<>(violations.values());
+    }
+
+    private static String callSite() {
+        return WALKER.walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith("study.querydsl.")
+                        && !f.getClassName().startsWith("study.querydsl.sql.")
+                        && !f.getClassName().contains("$$"))
+                .findFirst()
+                .map(f -> f.getClassName() + "." + f.getMethodName() + ":" + f.getLineNumber())
+                .orElse("unknown"));
+    }
+}
@@ -0,0 +1,95 @@
+package study.querydsl.sql;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * SQL 을 리터럴/바인딩 값과 무관한 형태로 정규화한다.
+ * <pre>
+ * select * from member where age > 10 and name in ('a', 'b')
+ *   -> select * from member where age > ? and name in (?+)
+ * </pre>
+ */
+public final class SqlFingerprint {
+
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\?(?:, ?\\?)+\\)");
+    private static final int CACHE_LIMIT = 10_000;
+    private static final ConcurrentHashMap<String, String> CACHE = new ConcurrentHashMap<>();
+
+    private SqlFingerprint() {
+    }
+
+    public static String of(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String cached = CACHE.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        String fingerprint = normalize(sql);
+        // 리터럴이 박힌 SQL 이 계속 들어와도 캐시가 무한히 커지지 않도록
+        if (CACHE.size() < CACHE_LIMIT) {
+            CACHE.put(sql, fingerprint);
+        }
+        return fingerprint;
+    }
+
+    static String normalize(String sql) {
+        StringBuilder sb = new StringBuilder(sql.length());
+        boolean space = false;
+        int i = 0;
+        int length = sql.length();
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = true;
+                i++;
+                continue;
+            }
+            if (space && !sb.isEmpty()) {
+                sb.append(' ');
+            }
+            space = false;
+
+            if (c == '\'') {
+                i = skipString(sql, i);
+                sb.append('?');
+            } else if (Character.isDigit(c) && !identifierPart(sb)) {
+                while (i < length && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                sb.append('?');
+            } else {
+                sb.append(Character.toLowerCase(c));
+                i++;
+            }
+        }
+        return PARAMETER_LIST.matcher(sb).replaceAll("(?+)");
+    }
+
+    // 'it''s' 처럼 따옴표 두 개는 문자열 안의 따옴표
+    private static int skipString(String sql, int start) {
+        int i = start + 1;
+        while (i < sql.length()) {
+            if (sql.charAt(i) == '\'') {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == '\'') {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    // member1_0 같은 별칭의 숫자는 리터럴이 아니다
+    private static boolean identifierPart(StringBuilder sb) {
+        if (sb.isEmpty()) {
+            return false;
+        }
+        char prev = sb.charAt(sb.length() - 1);
+        return Character.isLetterOrDigit(prev) || prev == '_' || prev == '$';
+    }
+}
@@ -0,0 +1,55 @@
+package study.querydsl.sql;
+
+import com.p6spy.engine.common.PreparedStatementInformation;
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+/**
+ * 실행된 모든 SQL 을 fingerprint 별로 {@link SqlMetricsRegistry} 에 기록한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class SqlMetricsListener extends JdbcEventListener {
+
+    private final SqlMetricsRegistry registry;
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        registry.record(SqlFingerprint.of(statementInformation.getSql()), timeElapsedNanos, e != null);
+    }
+
+    @Override
+    public void onAfterExecuteUpdate(PreparedStatementInformation statementInformation, long timeElapsedNanos,
+                                     int rowCount, SQLException e) {
+        if (rowCount > 0) {
+            registry.addRows(SqlFingerprint.of(statementInformation.getSql()), rowCount);
+        }
+        super.onAfterExecuteUpdate(statementInformation, timeElapsedNanos, rowCount, e);
+    }
+
+    @Override
+    public void onAfterExecuteBatch(StatementInformation statementInformation, long timeElapsedNanos,
+                                    int[] updateCounts, SQLException e) {
+        if (updateCounts != null) {
+            long rows = 0;
+            for (int updateCount : updateCounts) {
+                rows += Math.max(0, updateCount);
+            }
+            registry.addRows(SqlFingerprint.of(statementInformation.getSql()), rows);
+        }
+        super.onAfterExecuteBatch(statementInformation, timeElapsedNanos, updateCounts, e);
+    }
+
+    @Override
+    public void onAfterResultSetNext(ResultSetInformation resultSetInformation, long timeElapsedNanos,
+                                     boolean hasNext, SQLException e) {
+        if (hasNext) {
+            registry.addRows(SqlFingerprint.of(resultSetInformation.getStatementInformation().getSql()), 1);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package study.querydsl.sql;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class SqlMetricsRegistry {
+
+    static final String OTHER = "(other)";
+
+    public enum SortKey {
+        TOTAL(Comparator.comparingLong(SqlStatsView::getTotalMicros)),
+        P99(Comparator.comparingLong(SqlStatsView::getP99Micros)),
+        COUNT(Comparator.comparingLong(SqlStatsView::getCount));
+
+        private final Comparator<SqlStatsView> order;
+
+        SortKey(Comparator<SqlStatsView> order) {
+            this.order = order;
+        }
+    }
+
+    private final int maxFingerprints;
+    private final ConcurrentHashMap<String, SqlStats> stats = new ConcurrentHashMap<>();
+
+    public SqlMetricsRegistry(@Value("${sql-metrics.max-fingerprints:5000}") int maxFingerprints) {
+        this.maxFingerprints = maxFingerprints;
+    }
+
+    public void record(String fingerprint, long elapsedNanos, boolean error) {
+        statsFor(fingerprint).record(elapsedNanos, error);
+    }
+
+    public void addRows(String fingerprint, long rows) {
+        statsFor(fingerprint).addRows(rows);
+    }
+
+    public List<SqlStatsView> top(SortKey sortKey, int limit) {
+        return stats.values().stream()
+                .map(SqlStats::view)
+                .sorted(sortKey.order.reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void reset() {
+        stats.clear();
+    }
+
+    private SqlStats statsFor(String fingerprint) {
+        SqlStats existing = stats.get(fingerprint);
+        if (existing != null) {
+            return existing;
+        }
+        // 종류가 너무 많아지면 나머지는 하나로 모은다
+        String key = stats.size() < maxFingerprints ? fingerprint : OTHER;
+        return stats.computeIfAbsent(key, SqlStats::new);
+    }
+}
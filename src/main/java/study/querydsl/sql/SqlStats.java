@@ -0,0 +1,42 @@
+package study.querydsl.sql;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * fingerprint 하나에 대한 누적 통계
+ */
+public class SqlStats {
+    private final String fingerprint;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    public SqlStats(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    void record(long elapsedNanos, boolean error) {
+        count.increment();
+        totalNanos.add(elapsedNanos);
+        latency.record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    void addRows(long n) {
+        rows.add(n);
+    }
+
+    public SqlStatsView view() {
+        long executions = count.sum();
+        long total = totalNanos.sum();
+        return new SqlStatsView(fingerprint, executions, errors.sum(), rows.sum(),
+                TimeUnit.NANOSECONDS.toMicros(total),
+                executions == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(total / executions),
+                latency.percentile(50), latency.percentile(95), latency.percentile(99));
+    }
+}
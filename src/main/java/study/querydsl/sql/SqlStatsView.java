@@ -0,0 +1,32 @@
+package study.querydsl.sql;
+
+import lombok.Getter;
+
+/**
+ * 시간 단위는 모두 마이크로초
+ */
+@Getter
+public class SqlStatsView {
+    private final String fingerprint;
+    private final long count;
+    private final long errors;
+    private final long rows;
+    private final long totalMicros;
+    private final long meanMicros;
+    private final long p50Micros;
+    private final long p95Micros;
+    private final long p99Micros;
+
+    public SqlStatsView(String fingerprint, long count, long errors, long rows, long totalMicros,
+                        long meanMicros, long p50Micros, long p95Micros, long p99Micros) {
+        this.fingerprint = fingerprint;
+        this.count = count;
+        this.errors = errors;
+        this.rows = rows;
+        this.totalMicros = totalMicros;
+        this.meanMicros = meanMicros;
+        this.p50Micros = p50Micros;
+        this.p95Micros = p95Micros;
+        this.p99Micros = p99Micros;
+    }
+}
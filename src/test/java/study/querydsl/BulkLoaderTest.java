@@ -0,0 +1,115 @@
+package study.querydsl;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.service.BulkLoader;
+import study.querydsl.service.BulkProgressListener;
+import study.querydsl.service.TeamStatsService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static study.querydsl.entity.QMember.member;
+
+@SpringBootTest
+public class BulkLoaderTest {
+    private static final Logger log = LoggerFactory.getLogger(BulkLoaderTest.class);
+
+    @Autowired EntityManager em;
+    @Autowired JPAQueryFactory query;
+    @Autowired BulkLoader bulkLoader;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired TeamStatsService teamStatsService;
+
+    @Test
+    public void persistInChunks() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Team team = tx.execute(status -> {
+            Team saved = new Team("bulkTeam");
+            em.persist(saved);
+            return saved;
+        });
+        try {
+            List<Member> members = new ArrayList<>();
+            for (int i = 0; i < 25; i++) {
+                members.add(new Member("bulk" + i, i, team));
+            }
+            List<Long> progress = new ArrayList<>();
+
+            long loaded = bulkLoader.persistAll(members.iterator(), 10, (count, elapsed) -> progress.add(count));
+
+            assertThat(loaded).isEqualTo(25);
+            assertThat(progress).containsExactly(10L, 20L, 25L);
+            // chunk 마다 커밋되었으므로 새 트랜잭션에서 보인다
+            assertThat(tx.execute(status -> query.select(member.count()).from(member)
+                    .where(member.team.id.eq(team.getId())).fetchOne()))
+                    .isEqualTo(25);
+        } finally {
+            tx.executeWithoutResult(status -> {
+                query.delete(member).where(member.team.id.eq(team.getId())).execute();
+                em.remove(em.find(Team.class, team.getId()));
+                teamStatsService.rebuild(); // 벌크 삭제는 team_stats 리스너를 거치지 않는다
+            });
+        }
+    }
+
+    @Test
+    @Transactional
+    public void rejectsSurroundingTransaction() {
+        assertThatThrownBy(() -> bulkLoader.persistAll(List.of(new Team("bulkInTx")).iterator(), 10,
+                BulkProgressListener.NONE))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void insertBenchmark() {
+        long members = Long.getLong("bench.members", 1_000_000);
+        long baselineMembers = Long.getLong("bench.baseline-members", 20_000);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        // 기존 방식: 저장할 때마다 트랜잭션 하나, persist 하나
+        Team baselineTeam = tx.execute(s -> {
+            Team team = new Team("baseline");
+            em.persist(team);
+            return team;
+        });
+        long start = System.currentTimeMillis();
+        for (long i = 0; i < baselineMembers; i++) {
+            long index = i;
+            tx.executeWithoutResult(s -> em.persist(new Member("baseline" + index, (int) (index % 100), baselineTeam)));
+        }
+        long baselineMillis = Math.max(1, System.currentTimeMillis() - start);
+
+        AtomicLong last = new AtomicLong();
+        start = System.currentTimeMillis();
+        long loaded = bulkLoader.loadTeamsAndMembers(100, members, 5_000, (count, elapsed) -> {
+            if (count - last.get() >= 100_000) {
+                last.set(count);
+                log.info("loaded={} elapsed={}ms", count, elapsed);
+            }
+        });
+        long bulkMillis = Math.max(1, System.currentTimeMillis() - start);
+
+        long baselineRate = baselineMembers * 1000 / baselineMillis;
+        long bulkRate = loaded * 1000 / bulkMillis;
+        log.info("baseline: {} rows {}ms ({} rows/s)", baselineMembers, baselineMillis, baselineRate);
+        log.info("bulk    : {} rows {}ms ({} rows/s)", loaded, bulkMillis, bulkRate);
+        assertThat(loaded).isEqualTo(members);
+        assertThat(bulkRate).isGreaterThan(baselineRate);
+    }
+}
@@ -0,0 +1,137 @@
+package study.querydsl;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Book;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.service.BulkUpdateService;
+import study.querydsl.service.PersistenceContextSync;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QItem.item;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+@SpringBootTest
+@Transactional
+public class BulkUpdateServiceTest {
+    private static final Logger log = LoggerFactory.getLogger(BulkUpdateServiceTest.class);
+
+    @Autowired EntityManager em;
+    @Autowired JPAQueryFactory query;
+    @Autowired BulkUpdateService bulkUpdateService;
+
+    Team teamA;
+    Member member3;
+
+    @BeforeEach
+    public void before() {
+        teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        member3 = new Member("member3", 30, teamB);
+        em.persist(member3);
+        em.persist(new Member("member4", 40, teamB));
+    }
+
+    @Test
+    public void addAgeEvictsStaleMembers() {
+        long count = bulkUpdateService.addAge("teamB", 1, PersistenceContextSync.EVICT_AFFECTED);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(em.contains(member3)).isFalse();
+        assertThat(em.contains(teamA)).isTrue(); // 다른 타입은 그대로
+        assertThat(em.find(Member.class, member3.getId()).getAge()).isEqualTo(31);
+    }
+
+    @Test
+    public void addAgeClear() {
+        bulkUpdateService.addAge("teamB", 1, PersistenceContextSync.CLEAR);
+
+        assertThat(em.contains(teamA)).isFalse();
+        assertThat(query.select(member.age).from(member).where(member.name.in("member3", "member4")).fetch())
+                .containsExactlyInAnyOrder(31, 41);
+    }
+
+    @Test
+    public void deleteOlderThan() {
+        // 다른 테스트 데이터와 겹치지 않는 나이
+        Team old = new Team("old");
+        em.persist(old);
+        em.persist(new Member("old1", 901, old));
+        em.persist(new Member("old2", 902, old));
+        em.flush();
+        em.clear();
+        Team loaded = em.find(Team.class, old.getId());
+        assertThat(loaded.getMemberList()).hasSize(2);
+
+        long deleted = bulkUpdateService.deleteMembersOlderThan(900, PersistenceContextSync.EVICT_AFFECTED);
+
+        assertThat(deleted).isEqualTo(2);
+        assertThat(query.selectFrom(member).where(member.age.gt(900)).fetch()).isEmpty();
+        // 지운 회원을 담고 있던 memberList 의 소유자도 분리된다
+        assertThat(em.contains(loaded)).isFalse();
+        assertThat(em.find(Team.class, old.getId()).getMemberList()).isEmpty();
+    }
+
+    @Test
+    public void discountItems() {
+        Book book = new Book();
+        book.setName("JPA");
+        book.setPrice(20000);
+        em.persist(book);
+
+        bulkUpdateService.discountItems(10000, 1000, PersistenceContextSync.EVICT_AFFECTED);
+
+        assertThat(query.select(item.Price).from(item).where(item.id.eq(book.getId())).fetchOne()).isEqualTo(19000);
+        assertThat(em.find(Book.class, book.getId()).getPrice()).isEqualTo(19000);
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void bulkVsDirtyChecking() {
+        int rows = Integer.getInteger("bench.rows", 100_000);
+        Team bench = new Team("bench");
+        em.persist(bench);
+        for (int i = 0; i < rows; i++) {
+            em.persist(new Member("bench" + i, i % 100, bench));
+            if (i % 1_000 == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+
+        long start = System.currentTimeMillis();
+        List<Member> members = query.selectFrom(member).join(member.team, team).where(team.name.eq("bench")).fetch();
+        for (Member m : members) {
+            m.setAge(m.getAge() + 1);
+        }
+        em.flush();
+        em.clear();
+        long dirtyChecking = System.currentTimeMillis() - start;
+
+        start = System.currentTimeMillis();
+        bulkUpdateService.addAge("bench", 1, PersistenceContextSync.CLEAR);
+        long bulk = System.currentTimeMillis() - start;
+
+        log.info("rows={} dirtyChecking={}ms bulk={}ms", rows, dirtyChecking, bulk);
+        // 한 문장으로 끝나는 벌크 update 가 행마다 update 하는 dirty checking 보다 빨라야 한다
+        assertThat(bulk).isLessThan(dirtyChecking);
+    }
+}
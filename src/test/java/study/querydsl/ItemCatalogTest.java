@@ -0,0 +1,129 @@
+package study.querydsl;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.*;
+import study.querydsl.repository.ItemCatalogRepository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QItem.item;
+import static study.querydsl.entity.QItemCatalog.itemCatalog;
+
+@SpringBootTest
+@Transactional
+public class ItemCatalogTest {
+    private static final Logger log = LoggerFactory.getLogger(ItemCatalogTest.class);
+
+    @Autowired EntityManager em;
+    @Autowired JPAQueryFactory query;
+    @Autowired ItemCatalogRepository itemCatalogRepository;
+
+    @Test
+    public void syncOnWrite() {
+        Book book = item(new Book(), "JPA", 20000);
+        Album album = item(new Album(), "album", 15000);
+        em.flush();
+        em.clear();
+
+        assertThat(catalog(book.getId()).getType()).isEqualTo("B");
+        assertThat(catalog(album.getId()).getType()).isEqualTo("A");
+
+        Book found = em.find(Book.class, book.getId());
+        found.setPrice(18000);
+        em.flush();
+        em.clear();
+        assertThat(catalog(book.getId()).getPrice()).isEqualTo(18000);
+
+        em.remove(em.find(Album.class, album.getId()));
+        em.flush();
+        em.clear();
+        assertThat(query.selectFrom(itemCatalog).where(itemCatalog.id.eq(album.getId())).fetchOne()).isNull();
+    }
+
+    @Test
+    public void rebuild() {
+        Movie movie = item(new Movie(), "movie", 9000);
+        em.flush();
+        query.delete(itemCatalog).where(itemCatalog.id.eq(movie.getId())).execute();
+
+        itemCatalogRepository.rebuild();
+
+        assertThat(catalog(movie.getId()).getType()).isEqualTo("M");
+        assertThat(itemCatalogRepository.countByType().values().stream().mapToLong(Long::longValue).sum())
+                .isEqualTo(query.select(item.count()).from(item).fetchOne());
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void unionVsCatalog() {
+        int items = Integer.getInteger("bench.items", 1_000_000);
+        for (int i = 0; i < items; i++) {
+            Item next = switch (i % 3) {
+                case 0 -> new Album();
+                case 1 -> new Book();
+                default -> new Movie();
+            };
+            next.setName("item" + i);
+            next.setPrice(i % 50_000);
+            em.persist(next);
+            if (i % 5_000 == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+
+        // 세 라운드 중 가장 빠른 시간으로 비교 (첫 라운드는 워밍업 영향이 크다)
+        Map<String, Long> best = new HashMap<>();
+        for (int round = 0; round < 3; round++) {
+            measure(best, "listing union", () -> query.selectFrom(item).orderBy(item.id.asc()).offset(500_000).limit(100).fetch().size());
+            measure(best, "listing catalog", () -> itemCatalogRepository.findPage(500_000, 100).size());
+            measure(best, "price union", () -> query.selectFrom(item).where(item.Price.between(1000, 1010)).orderBy(item.Price.asc()).limit(100).fetch().size());
+            measure(best, "price catalog", () -> itemCatalogRepository.findByPriceBetween(1000, 1010, 100).size());
+            measure(best, "count union", () -> {
+                long total = 0;
+                for (Class<? extends Item> type : java.util.List.of(Album.class, Book.class, Movie.class)) {
+                    total += query.select(item.count()).from(item).where(item.instanceOf(type)).fetchOne();
+                }
+                return (int) total;
+            });
+            measure(best, "count catalog", () -> itemCatalogRepository.countByType().size());
+            em.clear();
+        }
+
+        assertThat(best.get("listing catalog")).isLessThan(best.get("listing union"));
+        assertThat(best.get("price catalog")).isLessThan(best.get("price union"));
+        assertThat(best.get("count catalog")).isLessThan(best.get("count union"));
+    }
+
+    private <T extends Item> T item(T item, String name, int price) {
+        item.setName(name);
+        item.setPrice(price);
+        em.persist(item);
+        return item;
+    }
+
+    private ItemCatalog catalog(Long id) {
+        return query.selectFrom(itemCatalog).where(itemCatalog.id.eq(id)).fetchOne();
+    }
+
+    private static void measure(Map<String, Long> best, String name, Supplier<Integer> task) {
+        long start = System.nanoTime();
+        int rows = task.get();
+        long micros = (System.nanoTime() - start) / 1_000;
+        log.info("{} rows={} {}us", name, rows, micros);
+        best.merge(name, micros, Math::min);
+    }
+}
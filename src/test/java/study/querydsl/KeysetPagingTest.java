@@ -0,0 +1,155 @@
+package study.querydsl;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.paging.KeysetCursor;
+import study.querydsl.paging.KeysetPage;
+import study.querydsl.paging.KeysetPaging;
+import study.querydsl.repository.MemberQueryRepository;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static study.querydsl.entity.QMember.member;
+
+@SpringBootTest
+@Transactional
+public class KeysetPagingTest {
+    @Autowired EntityManager em;
+    @Autowired JPAQueryFactory query;
+    @Autowired MemberQueryRepository memberQueryRepository;
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+        em.persist(new Member("member4", 50, teamB));
+        em.persist(new Member(null, 100));
+        em.persist(new Member(null, 100));
+    }
+
+    @Test
+    public void ascNullsLast() {
+        List<Member> expected = query.selectFrom(member)
+                .orderBy(member.name.asc().nullsLast(), member.id.asc())
+                .fetch();
+
+        List<Member> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            KeysetPage<Member> page = memberQueryRepository.findPageOrderByName(cursor, 2);
+            assertThat(page.getContent().size()).isLessThanOrEqualTo(2);
+            pages.addAll(page.getContent());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(pages).containsExactlyElementsOf(expected);
+        assertThat(pages.get(pages.size() - 1).getName()).isNull();
+    }
+
+    @Test
+    public void descWithTieBreaker() {
+        List<OrderSpecifier<?>> orders = List.of(member.age.desc(), member.name.desc().nullsLast(), member.id.desc());
+        List<Member> expected = query.selectFrom(member)
+                .orderBy(orders.toArray(new OrderSpecifier<?>[0]))
+                .fetch();
+
+        List<Member> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            KeysetPage<Member> page = KeysetPaging.fetch(query.selectFrom(member), orders, cursor, 3);
+            pages.addAll(page.getContent());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(pages).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    public void invalidCursor() {
+        assertThatThrownBy(() -> memberQueryRepository.findPageOrderByName("not-a-cursor", 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void cursorRoundTrip() {
+        Object[] values = {"member1", 10L, 3, null, new BigDecimal("1.50"), LocalDateTime.of(2024, 1, 1, 9, 30)};
+
+        assertThat(KeysetCursor.decode(KeysetCursor.encode(values))).containsExactly(values);
+    }
+
+    @Test
+    public void cursorIsNotJavaSerialization() {
+        // 예전 형식(ObjectOutputStream) 커서나 타입이 없는 값은 거부
+        String serialized = Base64.getUrlEncoder().encodeToString(new byte[]{(byte) 0xAC, (byte) 0xED, 0x00, 0x05});
+        String untyped = Base64.getUrlEncoder().encodeToString("[\"member1\"]".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> KeysetCursor.decode(serialized)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(untyped)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * 깊은 페이지에서도 keyset 조회 시간이 얕은 페이지와 비슷해야 한다 (offset 은 건너뛴 행 수만큼 늘어난다).
+     */
+    @Test
+    @Tag("benchmark")
+    public void deepPageBenchmark() {
+        int total = Integer.getInteger("bench.rows", 20_000);
+        int size = 20;
+        for (int i = 0; i < total; i++) {
+            em.persist(new Member(String.format("bulk%06d", i), i % 100));
+            if (i % 1_000 == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+
+        List<OrderSpecifier<?>> orders = List.of(member.name.asc().nullsLast(), member.id.asc());
+        int pages = total / size;
+        long[] keysetNanos = new long[pages];
+        String cursor = null;
+        for (int page = 0; page < pages; page++) {
+            long start = System.nanoTime();
+            KeysetPage<Member> keyset = KeysetPaging.fetch(query.selectFrom(member), orders, cursor, size);
+            keysetNanos[page] = System.nanoTime() - start;
+            cursor = keyset.getNextCursor();
+            em.clear();
+        }
+
+        // 앞쪽은 JIT 워밍업이 섞이므로 10% 지점부터 비교
+        int window = Math.max(10, pages / 10);
+        long shallow = median(keysetNanos, window, 2 * window);
+        long deep = median(keysetNanos, pages - window, pages);
+        assertThat(deep).isLessThan(shallow * 3 + 1_000_000);
+    }
+
+    private static long median(long[] values, int from, int to) {
+        long[] window = Arrays.copyOfRange(values, from, to);
+        Arrays.sort(window);
+        return window[window.length / 2];
+    }
+}
@@ -0,0 +1,90 @@
+package study.querydsl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.service.MemberQueryService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "lazy-load-guard.mode=fail")
+public class LazyLoadGuardTest {
+    @Autowired EntityManagerFactory emf;
+    @Autowired EntityManager em;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired MemberQueryService memberQueryService;
+
+    TransactionTemplate tx;
+    Long memberId;
+    Long teamId;
+
+    @BeforeEach
+    public void before() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            Team team = new Team("lazyGuard");
+            em.persist(team);
+            Member member = new Member("lazyGuard1", 10, team);
+            em.persist(member);
+            memberId = member.getId();
+            teamId = team.getId();
+        });
+    }
+
+    @AfterEach
+    public void after() {
+        tx.executeWithoutResult(status -> {
+            em.remove(em.find(Member.class, memberId));
+            em.remove(em.find(Team.class, teamId));
+        });
+    }
+
+    @Test
+    public void proxyInitializationOutsideTransactionFails() {
+        EntityManager session = emf.createEntityManager();
+        try {
+            Member member = session.find(Member.class, memberId);
+            assertThatThrownBy(() -> member.getTeam().getName())
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("Team")
+                    .hasMessageContaining("outside a transaction");
+        } finally {
+            session.close();
+        }
+    }
+
+    @Test
+    public void collectionInitializationOutsideTransactionFails() {
+        EntityManager session = emf.createEntityManager();
+        try {
+            Team team = session.find(Team.class, teamId);
+            assertThatThrownBy(() -> team.getMemberList().size())
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("memberList");
+        } finally {
+            session.close();
+        }
+    }
+
+    @Test
+    public void insideTransactionIsAllowed() {
+        String teamName = tx.execute(status -> em.find(Member.class, memberId).getTeam().getName());
+        assertThat(teamName).isEqualTo("lazyGuard");
+    }
+
+    @Test
+    public void serviceReturnsLoadedDto() {
+        MemberTeamDto dto = memberQueryService.findMember(memberId);
+        assertThat(dto.getTeamName()).isEqualTo("lazyGuard");
+    }
+}
@@ -0,0 +1,127 @@
+package study.querydsl;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Product;
+import study.querydsl.service.CollectionDelta;
+import study.querydsl.service.MemberCollectionService;
+import study.querydsl.sql.SqlMetricsRegistry;
+import study.querydsl.sql.SqlStatsView;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+public class MemberCollectionServiceTest {
+    @Autowired EntityManager em;
+    @Autowired MemberCollectionService memberCollectionService;
+    @Autowired SqlMetricsRegistry sqlMetrics;
+
+    Long memberId;
+    List<Long> productIds = new ArrayList<>();
+
+    @BeforeEach
+    public void before() {
+        Member member = new Member("collection", 10);
+        for (int i = 0; i < 500; i++) {
+            Product product = new Product();
+            em.persist(product);
+            productIds.add(product.getId());
+            member.getProducts().add(product);
+            member.getFoods().add("food" + i);
+        }
+        em.persist(member);
+        memberId = member.getId();
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void editOneFood() {
+        Set<String> foods = foods();
+        foods.remove("food0");
+        foods.add("food500");
+
+        sqlMetrics.reset();
+        CollectionDelta delta = memberCollectionService.updateFoods(memberId, foods);
+        em.flush();
+
+        assertThat(delta).isEqualTo(new CollectionDelta(1, 1));
+        assertThat(rows("delete from favorite_food")).isEqualTo(1);
+        assertThat(rows("insert into favorite_food")).isEqualTo(1);
+        em.clear();
+        assertThat(em.find(Member.class, memberId).getFoods()).isEqualTo(foods);
+    }
+
+    @Test
+    public void editOneProduct() {
+        Product added = new Product();
+        em.persist(added);
+        Set<Long> ids = new HashSet<>(productIds);
+        ids.remove(productIds.get(0));
+        ids.add(added.getId());
+        em.flush();
+        em.clear();
+
+        sqlMetrics.reset();
+        CollectionDelta delta = memberCollectionService.updateProducts(memberId, ids);
+        em.flush();
+
+        assertThat(delta).isEqualTo(new CollectionDelta(1, 1));
+        assertThat(rows("delete from member_product")).isEqualTo(1);
+        assertThat(rows("insert into member_product")).isEqualTo(1);
+        em.clear();
+        assertThat(em.find(Member.class, memberId).getProducts()).extracting(Product::getId)
+                .containsExactlyInAnyOrderElementsOf(ids);
+    }
+
+    @Test
+    public void unchangedCollectionWritesNothing() {
+        sqlMetrics.reset();
+        CollectionDelta delta = memberCollectionService.updateFoods(memberId, foods());
+        em.flush();
+
+        assertThat(delta.isEmpty()).isTrue();
+        assertThat(rows("delete from favorite_food") + rows("insert into favorite_food")).isZero();
+    }
+
+    @Test
+    public void replacingCollectionRewritesEveryRow() {
+        Set<String> foods = foods();
+        foods.remove("food0");
+        foods.add("food500");
+
+        sqlMetrics.reset();
+        em.find(Member.class, memberId).setFoods(foods);
+        em.flush();
+
+        // 비교용: 컬렉션 인스턴스를 바꾸면 전체 삭제 후 500 행 재삽입
+        assertThat(rows("delete from favorite_food")).isEqualTo(500);
+        assertThat(rows("insert into favorite_food")).isEqualTo(500);
+    }
+
+    private Set<String> foods() {
+        Set<String> foods = new HashSet<>();
+        for (int i = 0; i < 500; i++) {
+            foods.add("food" + i);
+        }
+        return foods;
+    }
+
+    private long rows(String prefix) {
+        return sqlMetrics.top(SqlMetricsRegistry.SortKey.COUNT, 1_000).stream()
+                .filter(view -> view.getFingerprint().startsWith(prefix))
+                .mapToLong(SqlStatsView::getRows)
+                .sum();
+    }
+}
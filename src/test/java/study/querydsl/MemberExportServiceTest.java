@@ -0,0 +1,137 @@
+package study.querydsl;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.service.BulkLoader;
+import study.querydsl.service.MemberExportService;
+import study.querydsl.service.TeamStatsService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static com.querydsl.jpa.JPAExpressions.select;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+@SpringBootTest
+public class MemberExportServiceTest {
+    @Autowired EntityManager em;
+    @Autowired JPAQueryFactory query;
+    @Autowired MemberExportService memberExportService;
+    @Autowired BulkLoader bulkLoader;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired TeamStatsService teamStatsService;
+
+    @Test
+    @Transactional
+    public void csvAndNdjson() throws Exception {
+        Team team = new Team("export");
+        em.persist(team);
+        em.persist(new Member("a,\"b\"", 10, team));
+        em.persist(new Member(null, 20));
+        em.flush();
+        long total = query.select(member.count()).from(member).fetchOne();
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        long rows = memberExportService.export(csv, MemberExportService.Format.CSV);
+        String csvText = csv.toString(StandardCharsets.UTF_8);
+
+        assertThat(rows).isEqualTo(total);
+        assertThat(csvText).startsWith("member_id,name,age,team_id,team_name\n");
+        assertThat(csvText).contains(",\"a,\"\"b\"\"\",10," + team.getId() + ",export\n");
+
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        memberExportService.export(json, MemberExportService.Format.NDJSON);
+        String[] lines = json.toString(StandardCharsets.UTF_8).split("\n");
+
+        assertThat(lines).hasSize((int) total);
+        assertThat(lines).anyMatch(line -> line.contains("\"name\":\"a,\\\"b\\\"\"") && line.contains("\"teamName\":\"export\""));
+    }
+
+    /**
+     * 커서로 읽으면 최대 힙 사용량이 행 수와 무관해야 한다. 4배의 행을 내보내도 최대 사용량은 2배를 넘지 않는다
+     * (전체를 List 로 모으면 행 수에 비례해서 커진다).
+     */
+    @Test
+    @Tag("benchmark")
+    public void constantMemory() throws Exception {
+        int rows = Integer.getInteger("bench.rows", 250_000);
+        try {
+            bulkLoader.loadTeamsAndMembers(10, rows, 5_000, (count, elapsed) -> {
+            });
+            long small = peakHeapDuringExport(rows);
+            bulkLoader.loadTeamsAndMembers(10, rows * 3, 5_000, (count, elapsed) -> {
+            });
+            long large = peakHeapDuringExport(rows * 4L);
+
+            assertThat(large).isLessThan(small * 2 + (16L << 20));
+        } finally {
+            new TransactionTemplate(transactionManager).executeWithoutResult(s -> {
+                query.delete(member)
+                        .where(member.team.id.in(select(team.id).from(team).where(team.name.in(
+                                IntStream.range(0, 10).mapToObj(i -> "team" + i).toList()))))
+                        .execute();
+                teamStatsService.rebuild(); // 벌크 삭제는 team_stats 리스너를 거치지 않는다
+            });
+        }
+    }
+
+    /**
+     * @return 내보내는 동안 10ms 마다 잰 힙 사용량의 최대값 - 시작 전 사용량
+     */
+    private long peakHeapDuringExport(long expectedRows) throws Exception {
+        CountingOutputStream out = new CountingOutputStream();
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        AtomicLong peak = new AtomicLong(before);
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peak.accumulateAndGet(runtime.totalMemory() - runtime.freeMemory(), Math::max);
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.start();
+        long exported;
+        try {
+            exported = memberExportService.export(out, MemberExportService.Format.NDJSON);
+        } finally {
+            sampler.interrupt();
+            sampler.join();
+        }
+        assertThat(exported).isGreaterThanOrEqualTo(expectedRows);
+        assertThat(out.count).isPositive();
+        return peak.get() - before;
+    }
+
+    static class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
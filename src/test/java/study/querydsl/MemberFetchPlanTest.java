@@ -0,0 +1,83 @@
+package study.querydsl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.AddressEntity;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberFetchPlan;
+import study.querydsl.repository.MemberQueryRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+public class MemberFetchPlanTest {
+    static final int MEMBERS = 1_000;
+
+    @Autowired EntityManager em;
+    @Autowired EntityManagerFactory emf;
+    @Autowired MemberQueryRepository memberQueryRepository;
+
+    Statistics statistics;
+
+    @BeforeEach
+    public void before() {
+        Team team = new Team("fetchPlan");
+        em.persist(team);
+        for (int i = 0; i < MEMBERS; i++) {
+            Member member = new Member("member" + i, i % 100, team);
+            member.getAddressEntity().add(new AddressEntity("city" + i, "street", "zipcode"));
+            member.getAddressEntity().add(new AddressEntity("city" + i, "street2", "zipcode"));
+            em.persist(member);
+        }
+        em.flush();
+        em.clear();
+
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    public void summaryDoesNotLoadAddresses() {
+        List<Member> members = memberQueryRepository.findByTeamName("fetchPlan", MemberFetchPlan.SUMMARY);
+        for (Member member : members) {
+            member.getTeam().getName();
+        }
+
+        assertThat(members).hasSize(MEMBERS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void withAddresses() {
+        List<Member> members = memberQueryRepository.findByTeamName("fetchPlan", MemberFetchPlan.WITH_ADDRESSES);
+        for (Member member : members) {
+            assertThat(member.getAddressEntity()).hasSize(2);
+        }
+
+        assertThat(members).hasSize(MEMBERS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void lazyAddressesAreBatchFetched() {
+        List<Member> members = memberQueryRepository.findByTeamName("fetchPlan", MemberFetchPlan.SUMMARY);
+        for (Member member : members) {
+            member.getAddressEntity().size();
+        }
+
+        // 회원 1번 + 주소 100개씩 배치
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1 + MEMBERS / 100);
+    }
+}
@@ -0,0 +1,71 @@
+package study.querydsl;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.autocomplete.MemberNameIndex;
+import study.querydsl.autocomplete.NameMatch;
+import study.querydsl.entity.Member;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 커밋 후 이벤트로 반영되는지 보려면 실제로 커밋해야 하므로 @Transactional 을 붙이지 않고 직접 정리한다.
+ */
+@SpringBootTest
+public class MemberNameIndexTest {
+    @Autowired EntityManager em;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired MemberNameIndex memberNameIndex;
+
+    List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    public void cleanUp() {
+        tx().executeWithoutResult(status -> created.forEach(id -> {
+            Member found = em.find(Member.class, id);
+            if (found != null) {
+                em.remove(found);
+            }
+        }));
+    }
+
+    @Test
+    public void committedChangesAreIndexed() {
+        Long id = tx().execute(status -> {
+            Member member = new Member("autocomplete-kim", 10);
+            em.persist(member);
+            return member.getId();
+        });
+        created.add(id);
+        assertThat(memberNameIndex.complete("autocomplete-", 10)).containsExactly(new NameMatch(id, "autocomplete-kim"));
+
+        tx().executeWithoutResult(status -> em.find(Member.class, id).setName("autocomplete-lee"));
+        assertThat(memberNameIndex.complete("autocomplete-", 10)).containsExactly(new NameMatch(id, "autocomplete-lee"));
+
+        tx().executeWithoutResult(status -> em.remove(em.find(Member.class, id)));
+        assertThat(memberNameIndex.complete("autocomplete-", 10)).isEmpty();
+    }
+
+    @Test
+    public void rolledBackChangesAreNotIndexed() {
+        tx().executeWithoutResult(status -> {
+            em.persist(new Member("autocomplete-rollback", 10));
+            em.flush();
+            status.setRollbackOnly();
+        });
+
+        assertThat(memberNameIndex.complete("autocomplete-rollback", 10)).isEmpty();
+    }
+
+    private TransactionTemplate tx() {
+        return new TransactionTemplate(transactionManager);
+    }
+}
@@ -0,0 +1,181 @@
+package study.querydsl;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Address;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Period;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberSearchRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+public class MemberSearchConditionTest {
+    @Autowired EntityManager em;
+    @Autowired MemberSearchRepository memberSearchRepository;
+    @Autowired SqlCapture sqlCapture;
+
+    @TestConfiguration
+    static class SqlCaptureConfig {
+        @Bean
+        SqlCapture sqlCapture() {
+            return new SqlCapture();
+        }
+    }
+
+    /**
+     * 마지막으로 실행된 select 의 SQL (파라미터는 ? 그대로)
+     */
+    static class SqlCapture extends JdbcEventListener {
+        private volatile String lastSelect;
+
+        @Override
+        public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+            String sql = statementInformation.getSql();
+            if (sql != null && sql.trim().toLowerCase().startsWith("select")) {
+                lastSelect = sql;
+            }
+        }
+    }
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("searchA");
+        Team teamB = new Team("searchB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(member("searchAlice", 15, teamA, "searchSeoul", null, 2020));
+        em.persist(member("searchAmy", 25, teamA, "searchBusan", "searchSeoul", 2021));
+        em.persist(member("searchBob", 35, teamB, null, "searchBusan", 2022));
+        em.persist(member("searchBrian", 45, teamB, "searchSeoul", null, 2023));
+        em.persist(member("searchCarl", 55, null, null, null, 2024));
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void emptyConditionAddsNoPredicate() {
+        search(condition -> {
+        });
+        assertThat(sqlCapture.lastSelect).doesNotContainIgnoringCase(" where ");
+    }
+
+    @Test
+    public void namePrefix() {
+        assertThat(names(search(c -> c.setNamePrefix("searchA")))).containsExactly("searchAlice", "searchAmy");
+        assertThat(explain()).containsIgnoringCase("IDX_MEMBER_USERNAME_ID");
+    }
+
+    @Test
+    public void ageRange() {
+        assertThat(names(search(c -> {
+            c.setNamePrefix("search");
+            c.setAgeGoe(20);
+            c.setAgeLoe(40);
+        }))).containsExactly("searchAmy", "searchBob");
+
+        search(c -> {
+            c.setAgeGoe(20);
+            c.setAgeLoe(40);
+        });
+        assertThat(explain()).containsIgnoringCase("IDX_MEMBER_AGE");
+    }
+
+    @Test
+    public void teamName() {
+        assertThat(names(search(c -> c.setTeamName("searchB")))).containsExactly("searchBob", "searchBrian");
+        assertThat(explain()).containsIgnoringCase("IDX_TEAM_NAME");
+    }
+
+    @Test
+    public void teamNameAndAge() {
+        assertThat(names(search(c -> {
+            c.setTeamName("searchB");
+            c.setAgeGoe(40);
+        }))).containsExactly("searchBrian");
+        // team 을 이름 인덱스로 찾고, member 는 (team_id, age) 인덱스 하나로 팀과 나이 범위를 같이 좁힌다
+        String plan = explain();
+        assertThat(plan).containsIgnoringCase("IDX_TEAM_NAME").containsIgnoringCase("IDX_MEMBER_TEAM_AGE");
+    }
+
+    @Test
+    public void cityFromEitherAddress() {
+        assertThat(names(search(c -> c.setCity("searchSeoul"))))
+                .containsExactly("searchAlice", "searchAmy", "searchBrian");
+        String plan = explain();
+        assertThat(plan).containsIgnoringCase("IDX_MEMBER_CITY").containsIgnoringCase("IDX_MEMBER_SECOND_CITY");
+    }
+
+    @Test
+    public void periodOverlap() {
+        // period 는 해마다 1월 1일 ~ 6월 30일
+        assertThat(names(search(c -> {
+            c.setPeriodFrom(LocalDateTime.of(2021, 3, 1, 0, 0));
+            c.setPeriodTo(LocalDateTime.of(2022, 3, 1, 0, 0));
+        }))).containsExactly("searchAmy", "searchBob");
+
+        search(c -> c.setPeriodTo(LocalDateTime.of(2022, 3, 1, 0, 0)));
+        assertThat(explain()).containsIgnoringCase("IDX_MEMBER_PERIOD_START");
+        search(c -> c.setPeriodFrom(LocalDateTime.of(2021, 3, 1, 0, 0)));
+        assertThat(explain()).containsIgnoringCase("IDX_MEMBER_PERIOD_END");
+    }
+
+    private List<MemberTeamDto> search(Consumer<MemberSearchCondition> setup) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        setup.accept(condition);
+        return memberSearchRepository.search(condition, 0, 100);
+    }
+
+    private static List<String> names(List<MemberTeamDto> result) {
+        return result.stream().map(MemberTeamDto::getName).toList();
+    }
+
+    /**
+     * 마지막 검색 SQL 의 H2 실행 계획. 테이블 스캔이 없어야 한다.
+     */
+    private String explain() {
+        String sql = sqlCapture.lastSelect;
+        String plan = em.unwrap(Session.class).doReturningWork(connection -> {
+            // EXPLAIN 은 파라미터 값 없이 계획만 만든다
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+                 ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getString(1);
+            }
+        });
+        assertThat(plan).as(plan).doesNotContainIgnoringCase("tableScan");
+        return plan;
+    }
+
+    private static Member member(String name, int age, Team team, String city, String secondCity, int year) {
+        Member member = new Member(name, age, team);
+        if (city != null) {
+            member.setAddress(new Address(city, "street", "00000"));
+        }
+        if (secondCity != null) {
+            member.setAddress2(new Address(secondCity, "street", "00000"));
+        }
+        member.setPeriod(new Period(LocalDateTime.of(year, 1, 1, 0, 0), LocalDateTime.of(year, 6, 30, 0, 0)));
+        return member;
+    }
+}
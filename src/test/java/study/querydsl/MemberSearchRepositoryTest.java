@@ -0,0 +1,99 @@
+package study.querydsl;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberSearchRepository;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+@SpringBootTest
+@Transactional
+public class MemberSearchRepositoryTest {
+    @Autowired EntityManager em;
+    @Autowired JPAQueryFactory query;
+    @Autowired MemberSearchRepository memberSearchRepository;
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+    }
+
+    @Test
+    public void findByTeamName() {
+        List<MemberTeamDto> result = memberSearchRepository.findMemberTeamsByTeamName("teamA");
+        assertThat(result).extracting("name").containsExactly("member1", "member2");
+        assertThat(result).extracting("teamName").containsOnly("teamA");
+    }
+
+    /**
+     * DTO 조회는 엔티티/스냅샷/EntityEntry 를 만들지 않으므로 같은 행 수에서 할당이 적어야 한다.
+     */
+    @Test
+    @Tag("benchmark")
+    public void entityVsDtoBenchmark() {
+        int rows = Integer.getInteger("bench.rows", 5_000);
+        Team bench = new Team("bench");
+        em.persist(bench);
+        for (int i = 0; i < rows; i++) {
+            em.persist(new Member("bench" + i, i % 100, bench));
+            if (i % 1_000 == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+
+        // QuerydslBasicTest.join 과 같은 엔티티 조회
+        Supplier<Integer> entities = () -> {
+            List<Member> fetch = query.selectFrom(member)
+                    .innerJoin(member.team, team)
+                    .where(team.name.eq("bench"))
+                    .fetch();
+            int size = fetch.size();
+            em.clear();
+            return size;
+        };
+        Supplier<Integer> dtos = () -> memberSearchRepository.findMemberTeamsByTeamName("bench").size();
+
+        assertThat(entities.get()).isEqualTo(rows);
+        assertThat(dtos.get()).isEqualTo(rows);
+        // 워밍업 이후 가장 적게 할당한 회차끼리 비교
+        long entityBytes = Long.MAX_VALUE;
+        long dtoBytes = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            entityBytes = Math.min(entityBytes, allocatedBytes(entities));
+            dtoBytes = Math.min(dtoBytes, allocatedBytes(dtos));
+        }
+        assertThat(dtoBytes).isLessThan(entityBytes);
+    }
+
+    private static long allocatedBytes(Supplier<Integer> task) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        task.get();
+        return threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+    }
+}
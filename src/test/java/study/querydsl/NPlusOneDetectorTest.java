@@ -0,0 +1,117 @@
+package study.querydsl;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.sql.DetectNPlusOne;
+import study.querydsl.sql.NPlusOneDetector;
+import study.querydsl.sql.NPlusOneFilter;
+import study.querydsl.sql.NPlusOneViolation;
+import study.querydsl.sql.QueryScope;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+@SpringBootTest
+@Transactional
+public class NPlusOneDetectorTest {
+    @Autowired EntityManager em;
+    @Autowired JPAQueryFactory query;
+
+    @BeforeEach
+    public void before() {
+        for (int t = 0; t < 10; t++) {
+            Team team = new Team("nPlusOne" + t);
+            em.persist(team);
+            em.persist(new Member("member" + t, t, team));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void lazyTeamAccessIsReported() {
+        NPlusOneDetector.begin("lazy", 5);
+        try {
+            List<Member> members = query.selectFrom(member).where(member.team.name.startsWith("nPlusOne")).fetch();
+            for (Member m : members) {
+                m.getTeam().getName(); // 팀마다 select (배치 페치가 없다면)
+            }
+        } finally {
+            QueryScope scope = NPlusOneDetector.end();
+            // default_batch_fetch_size 가 켜져 있으면 팀 조회가 in 쿼리 하나로 묶인다
+            assertThat(scope.getViolations()).isEmpty();
+        }
+
+        em.clear();
+        NPlusOneDetector.begin("find", 5);
+        // Member 도 2차 캐시 대상이라 위에서 읽은 회원은 em.find 로 다시 읽으면 SQL 이 없다. id 별 쿼리로 확인
+        List<Long> ids = query.select(member.id).from(member).where(member.team.name.startsWith("nPlusOne")).fetch();
+        selectEach(ids);
+        QueryScope scope = NPlusOneDetector.end();
+
+        List<NPlusOneViolation> violations = scope.getViolations();
+        assertThat(violations).hasSize(1);
+        assertThat(violations.get(0).getCount()).isEqualTo(10);
+        assertThat(violations.get(0).getCallSite()).startsWith(NPlusOneDetectorTest.class.getName());
+    }
+
+    @Test
+    public void innerScopeRestoresOuter() throws Exception {
+        List<Long> ids = query.select(member.id).from(member).where(member.team.name.startsWith("nPlusOne")).fetch();
+
+        NPlusOneDetector.begin("test", 5);
+        // 요청 필터가 테스트 범위 안에서 자기 범위를 열고 닫는다
+        new NPlusOneFilter(5).doFilter(new MockHttpServletRequest("GET", "/n-plus-one"), new MockHttpServletResponse(),
+                (request, response) -> selectEach(ids));
+        QueryScope outer = NPlusOneDetector.end();
+
+        assertThat(outer).isNotNull();
+        assertThat(outer.getName()).isEqualTo("test");
+        assertThat(outer.getViolations()).hasSize(1);
+        assertThat(NPlusOneDetector.end()).isNull();
+    }
+
+    @Test
+    public void transactionScopeGroupsStatements() {
+        List<Long> ids = query.select(member.id).from(member).where(member.team.name.startsWith("nPlusOne")).fetch();
+        selectEach(ids);
+        selectEach(ids);
+
+        // 테스트 트랜잭션 하나에 묶인다 (n-plus-one.mode=log, threshold=10)
+        QueryScope scope = NPlusOneDetector.transactionScope();
+        assertThat(scope).isNotNull();
+        assertThat(scope.getViolations()).hasSize(1);
+        assertThat(scope.getViolations().get(0).getCount()).isEqualTo(20);
+    }
+
+    private void selectEach(List<Long> ids) {
+        for (Long id : ids) {
+            query.selectFrom(member).where(member.id.eq(id)).fetchOne();
+        }
+    }
+
+    @Test
+    @DetectNPlusOne
+    public void fetchJoinPasses() {
+        List<Member> members = query.selectFrom(member)
+                .join(member.team, team).fetchJoin()
+                .where(team.name.startsWith("nPlusOne"))
+                .fetch();
+        for (Member m : members) {
+            m.getTeam().getName();
+        }
+        assertThat(members).hasSize(10);
+    }
+}
@@ -0,0 +1,108 @@
+package study.querydsl;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.HandlerMapping;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.metrics.QueryMetrics;
+import study.querydsl.metrics.RequestWorkloadFilter;
+import study.querydsl.repository.MemberFetchPlan;
+import study.querydsl.repository.MemberQueryRepository;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@Transactional
+public class OrmMetricsTest {
+    @Autowired EntityManager em;
+    @Autowired MeterRegistry registry;
+    @Autowired RequestWorkloadFilter filter;
+    @Autowired MemberQueryRepository memberQueryRepository;
+    @Autowired WebApplicationContext context;
+
+    @BeforeEach
+    public void before() {
+        Team team = new Team("metricsTeam");
+        em.persist(team);
+        for (int i = 0; i < 5; i++) {
+            em.persist(new Member("metrics" + i, 20 + i, team));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void hibernateStatisticsBound() {
+        assertThat(registry.find("hibernate.sessions.open").meters()).isNotEmpty();
+        assertThat(registry.find("hibernate.entities.loads").meters()).isNotEmpty();
+    }
+
+    @Test
+    public void namedQueryTimer() {
+        memberQueryRepository.findByTeamName("metricsTeam", MemberFetchPlan.NONE);
+
+        Timer timer = registry.find(QueryMetrics.METER).tag("query", "member.findByTeamName").timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    public void statementsAndEntitiesPerEndpoint() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/metrics-test/members");
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/metrics-test/members");
+            em.createQuery("select m from Member m where m.name like 'metrics%'", Member.class).getResultList();
+            em.createQuery("select count(m) from Member m").getSingleResult();
+        });
+
+        DistributionSummary statements = registry.find(RequestWorkloadFilter.STATEMENTS)
+                .tags("method", "GET", "uri", "/metrics-test/members").summary();
+        DistributionSummary entities = registry.find(RequestWorkloadFilter.ENTITIES)
+                .tags("method", "GET", "uri", "/metrics-test/members").summary();
+        assertThat(statements.count()).isEqualTo(1);
+        assertThat(statements.totalAmount()).isGreaterThanOrEqualTo(2);
+        assertThat(entities.totalAmount()).isGreaterThanOrEqualTo(5);
+    }
+
+    @Test
+    public void streamingResponseRecordedOnAsyncDispatch() throws Exception {
+        MockMvc mvc = MockMvcBuilders.webAppContextSetup(context).addFilters(filter).build();
+        long before = exportStatements().map(DistributionSummary::count).orElse(0L);
+
+        MvcResult started = mvc.perform(get("/members/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(exportStatements().map(DistributionSummary::count).orElse(0L)).isEqualTo(before);
+
+        mvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+
+        DistributionSummary statements = exportStatements().orElseThrow();
+        assertThat(statements.count()).isEqualTo(before + 1);
+        assertThat(statements.max()).isGreaterThanOrEqualTo(1); // 작업 스레드에서 실행한 select
+    }
+
+    private Optional<DistributionSummary> exportStatements() {
+        return Optional.ofNullable(registry.find(RequestWorkloadFilter.STATEMENTS)
+                .tags("method", "GET", "uri", "/members/export").summary());
+    }
+}
@@ -0,0 +1,132 @@
+package study.querydsl;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.paging.CountStrategy;
+import study.querydsl.paging.PageFetcher;
+import study.querydsl.paging.PageResult;
+import study.querydsl.repository.MemberQueryRepository;
+import study.querydsl.service.TeamStatsService;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+
+@SpringBootTest
+@Transactional
+public class PageFetcherTest {
+    @Autowired EntityManager em;
+    @Autowired JPAQueryFactory query;
+    @Autowired PageFetcher pageFetcher;
+    @Autowired MemberQueryRepository memberQueryRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired TeamStatsService teamStatsService;
+
+    String prefix;
+
+    @BeforeEach
+    public void before() {
+        prefix = UUID.randomUUID().toString().substring(0, 8) + "-";
+        if (!TestTransaction.isActive()) {
+            return; // asyncCount 는 트랜잭션 없이 직접 커밋한 데이터를 쓴다
+        }
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        for (int i = 1; i <= 4; i++) {
+            em.persist(new Member(prefix + "member" + i, i * 10, teamA));
+        }
+    }
+
+    @Test
+    public void firstPageShorterThanLimit() {
+        PageResult<Member> page = fetch(0, 10, CountStrategy.SYNC);
+        assertThat(page.isCountElided()).isTrue();
+        assertThat(page.getTotal()).isEqualTo(4);
+        assertThat(page.getResults()).hasSize(4);
+    }
+
+    @Test
+    public void lastPage() {
+        PageResult<Member> page = fetch(3, 2, CountStrategy.SYNC);
+        assertThat(page.isCountElided()).isTrue();
+        assertThat(page.getTotal()).isEqualTo(4);
+        assertThat(page.getOffset()).isEqualTo(3);
+        assertThat(page.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    public void middlePageNeedsCount() {
+        // paging2 와 같은 결과
+        PageResult<Member> page = fetch(1, 2, CountStrategy.SYNC);
+        assertThat(page.isCountElided()).isFalse();
+        assertThat(page.getTotal()).isEqualTo(4);
+        assertThat(page.getResults()).hasSize(2);
+    }
+
+    @Test
+    public void cachedCount() {
+        pageFetcher.evictCountCache();
+        assertThat(fetch(1, 2, CountStrategy.CACHED).getTotal()).isEqualTo(4);
+
+        em.persist(new Member(prefix + "member5", 50));
+        // TTL 동안은 이전 total 을 그대로 사용
+        assertThat(fetch(1, 2, CountStrategy.CACHED).getTotal()).isEqualTo(4);
+
+        pageFetcher.evictCountCache();
+        assertThat(fetch(1, 2, CountStrategy.CACHED).getTotal()).isEqualTo(5);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void asyncCount() {
+        // 별도 커넥션에서 count 하므로 데이터가 커밋되어 있어야 한다
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        String committed = UUID.randomUUID().toString().substring(0, 8) + "-";
+        tx.executeWithoutResult(s -> {
+            for (int i = 1; i <= 5; i++) {
+                em.persist(new Member(committed + "member" + i, i * 10));
+            }
+        });
+        try {
+            PageResult<Member> page = tx.execute(s -> pageFetcher.fetch(
+                    query.selectFrom(member).where(member.name.startsWith(committed)).orderBy(member.name.desc()),
+                    query.select(member.count()).from(member).where(member.name.startsWith(committed)),
+                    1, 2, CountStrategy.ASYNC));
+            assertThat(page.isCountElided()).isFalse();
+            assertThat(page.getTotal()).isEqualTo(5);
+            assertThat(page.getResults()).extracting("name")
+                    .containsExactly(committed + "member4", committed + "member3");
+        } finally {
+            tx.executeWithoutResult(s -> {
+                query.delete(member).where(member.name.startsWith(committed)).execute();
+                teamStatsService.rebuild(); // 벌크 삭제는 team_stats 리스너를 거치지 않는다
+            });
+        }
+    }
+
+    @Test
+    public void repositoryPage() {
+        PageResult<Member> page = memberQueryRepository.findPageOrderByNameDesc(0, 2, CountStrategy.SYNC);
+        assertThat(page.getResults()).hasSize(2);
+        assertThat(page.getTotal()).isEqualTo(query.select(member.count()).from(member).fetchOne());
+    }
+
+    private PageResult<Member> fetch(long offset, long limit, CountStrategy strategy) {
+        return pageFetcher.fetch(
+                query.selectFrom(member).where(member.name.startsWith(prefix)).orderBy(member.name.desc()),
+                query.select(member.count()).from(member).where(member.name.startsWith(prefix)),
+                offset, limit, strategy);
+    }
+}
@@ -0,0 +1,117 @@
+package study.querydsl;
+
+import com.querydsl.core.NonUniqueResultException;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.ParamNotSetException;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.QMember;
+import study.querydsl.entity.Team;
+import study.querydsl.query.QueryTemplate;
+
+import java.util.List;
+
+import static com.querydsl.jpa.JPAExpressions.select;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+@SpringBootTest
+@Transactional
+public class QueryTemplateTest {
+    @Autowired EntityManager em;
+    @Autowired JPAQueryFactory query;
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("templateA");
+        Team teamB = new Team("templateB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+    }
+
+    @Test
+    public void join() {
+        Param<String> teamName = new Param<>(String.class, "teamName");
+        QueryTemplate<Member> template = QueryTemplate.of(query
+                .selectFrom(member)
+                .innerJoin(member.team, team)
+                .where(team.name.eq(teamName))
+                .orderBy(member.name.asc()));
+
+        assertThat(template.bind(teamName, "templateA").fetch(em)).extracting("name").containsExactly("member1", "member2");
+        assertThat(template.bind(teamName, "templateB").fetch(em)).extracting("name").containsExactly("member3", "member4");
+    }
+
+    @Test
+    public void subQueryWithConstantAndTuple() {
+        Param<String> prefix = new Param<>(String.class, "prefix");
+        QMember memberSub = new QMember("memberSub");
+        QueryTemplate<Tuple> template = QueryTemplate.of(query
+                .select(member.name, member.age)
+                .from(member)
+                .where(member.team.name.startsWith(prefix),
+                        member.age.goe(select(memberSub.age.avg()).from(memberSub)
+                                .where(memberSub.team.name.startsWith("template"))))
+                .orderBy(member.age.asc()));
+
+        List<Tuple> result = template.bind(prefix, "templateB").fetch(em);
+
+        assertThat(result).extracting(t -> t.get(member.name)).containsExactly("member3", "member4");
+    }
+
+    @Test
+    public void nestedProjection() {
+        Param<String> teamName = new Param<>(String.class, "teamName");
+        QueryTemplate<Tuple> template = QueryTemplate.of(query
+                .select(team.name, Projections.constructor(MemberDto.class, member.name, member.age))
+                .from(member)
+                .join(member.team, team)
+                .where(team.name.eq(teamName))
+                .orderBy(member.age.asc()));
+
+        List<Tuple> result = template.bind(teamName, "templateA").fetch(em);
+
+        assertThat(result).extracting(t -> t.get(team.name)).containsExactly("templateA", "templateA");
+        assertThat(result).extracting(t -> t.get(1, MemberDto.class))
+                .extracting("name", "age")
+                .containsExactly(tuple("member1", 10), tuple("member2", 20));
+    }
+
+    @Test
+    public void fetchOne() {
+        Param<String> teamName = new Param<>(String.class, "teamName");
+        Param<Integer> age = new Param<>(Integer.class, "age");
+        QueryTemplate<Member> template = QueryTemplate.of(query
+                .selectFrom(member)
+                .where(member.team.name.eq(teamName), member.age.goe(age)));
+
+        assertThat(template.bind(teamName, "templateA").bind(age, 20).fetchOne(em).getName()).isEqualTo("member2");
+        assertThat(template.bind(teamName, "templateA").bind(age, 50).fetchOne(em)).isNull();
+        assertThatThrownBy(() -> template.bind(teamName, "templateA").bind(age, 0).fetchOne(em))
+                .isInstanceOf(NonUniqueResultException.class);
+    }
+
+    @Test
+    public void missingParam() {
+        Param<Integer> age = new Param<>(Integer.class, "age");
+        QueryTemplate<Member> template = QueryTemplate.of(query.selectFrom(member).where(member.age.eq(age)));
+
+        assertThatThrownBy(() -> template.bindings().fetch(em)).isInstanceOf(ParamNotSetException.class);
+    }
+}
@@ -17,6 +17,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.entity.*;
+import study.querydsl.sql.DetectNPlusOne;
 import java.util.List;
 
 import static com.querydsl.jpa.JPAExpressions.select;
@@ -28,6 +29,7 @@ import static study.querydsl.entity.QTeam.team;
 
 @SpringBootTest
 @Transactional
+@DetectNPlusOne
 public class QuerydslBasicTest {
     @Autowired EntityManager em;
 
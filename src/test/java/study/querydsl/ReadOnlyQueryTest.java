@@ -0,0 +1,110 @@
+package study.querydsl;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.query.ReadOnlyQueryFactory;
+import study.querydsl.service.BulkLoader;
+import study.querydsl.service.BulkProgressListener;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+
+@SpringBootTest
+public class ReadOnlyQueryTest {
+    private static final Logger log = LoggerFactory.getLogger(ReadOnlyQueryTest.class);
+
+    @Autowired EntityManager em;
+    @Autowired JPAQueryFactory query;
+    @Autowired ReadOnlyQueryFactory readOnlyQuery;
+    @Autowired BulkLoader bulkLoader;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    @Transactional
+    public void readOnlyEntitiesAreNotFlushed() {
+        Team team = new Team("readOnly");
+        em.persist(team);
+        em.persist(new Member("readOnly1", 10, team));
+        em.flush();
+        em.clear();
+
+        Member found = readOnlyQuery.selectFrom(member).where(member.name.eq("readOnly1")).fetchOne();
+        assertThat(em.unwrap(Session.class).isReadOnly(found)).isTrue();
+        found.setAge(99);
+        em.flush();
+        em.clear();
+
+        assertThat(query.select(member.age).from(member).where(member.name.eq("readOnly1")).fetchOne()).isEqualTo(10);
+    }
+
+    @Test
+    public void readOnlyTransactionUsesManualFlush() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        tx.executeWithoutResult(status -> {
+            Session session = em.unwrap(Session.class);
+            assertThat(session.getHibernateFlushMode()).isEqualTo(FlushMode.MANUAL);
+            assertThat(session.isDefaultReadOnly()).isTrue();
+        });
+    }
+
+    /**
+     * ./gradlew benchmark -Dbench.read-only.members=100000
+     */
+    @Test
+    @Tag("benchmark")
+    public void heapAndFlushBenchmark() {
+        int members = Integer.getInteger("bench.read-only.members", 100_000);
+        bulkLoader.loadTeamsAndMembers(10, members, 5_000, BulkProgressListener.NONE);
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        long[] managed = tx.execute(status -> measure("managed", query, members));
+        long[] hinted = tx.execute(status -> measure("readOnly hint", readOnlyQuery, members));
+        tx.setReadOnly(true);
+        long[] readOnlyTx = tx.execute(status -> measure("readOnly tx", query, members));
+
+        assertThat(hinted[0]).isLessThan(managed[0]);
+        assertThat(readOnlyTx[0]).isLessThan(managed[0]);
+        // 읽기 전용 엔티티는 dirty checking 대상이 아니므로 flush 가 빨라야 한다
+        assertThat(hinted[1]).isLessThan(managed[1]);
+        assertThat(readOnlyTx[1]).isLessThan(managed[1]);
+    }
+
+    private long[] measure(String name, JPAQueryFactory factory, int members) {
+        long before = usedHeap();
+        List<Member> loaded = factory.selectFrom(member).limit(members).fetch();
+        long retained = usedHeap() - before;
+
+        long start = System.nanoTime();
+        em.flush();
+        long flushMicros = (System.nanoTime() - start) / 1_000;
+
+        log.info("{} members={} retained={}MB ({} bytes/entity) flush={}us",
+                name, loaded.size(), retained >> 20, retained / Math.max(1, loaded.size()), flushMicros);
+        em.clear();
+        return new long[]{retained, flushMicros};
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
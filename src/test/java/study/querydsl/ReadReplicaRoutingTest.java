@@ -0,0 +1,86 @@
+package study.querydsl;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.config.ReadWriteRoutingDataSource;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberFetchPlan;
+import study.querydsl.repository.MemberQueryRepository;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 인메모리 H2 두 개를 primary, replica 로 띄워서 JPA 트랜잭션이 어디로 가는지 본다.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadReplicaRoutingTest.PRIMARY_URL,
+        "spring.datasource.hikari.maximum-pool-size=3",
+        "datasource.routing.enabled=true",
+        "datasource.routing.replicas[0].url=" + ReadReplicaRoutingTest.REPLICA_URL})
+public class ReadReplicaRoutingTest {
+    static final String PRIMARY_URL = "jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired EntityManager em;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired MemberQueryRepository memberQueryRepository;
+    @Autowired DataSource dataSource;
+
+    @Test
+    public void routeByTransactionReadOnly() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        assertThat(tx.execute(status -> connectionUrl())).contains("mem:primary");
+
+        tx.setReadOnly(true);
+        assertThat(tx.execute(status -> connectionUrl())).contains("mem:replica");
+    }
+
+    @Test
+    public void readOnlyRepositoryReadsReplica(@TempDir Path dir) throws Exception {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Team team = new Team("replicaTeam");
+            em.persist(team);
+            em.persist(new Member("member1", 10, team));
+        });
+        // primary 의 스키마와 데이터를 replica 로 복사하고, replica 에서만 이름을 바꿔서 어디서 읽었는지 구분한다
+        String script = dir.resolve("primary.sql").toAbsolutePath().toString().replace('\\', '/');
+        try (Connection primary = DriverManager.getConnection(PRIMARY_URL, "sa", "");
+             Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement fromPrimary = primary.createStatement();
+             Statement toReplica = replica.createStatement()) {
+            fromPrimary.execute("script to '" + script + "'");
+            toReplica.execute("drop all objects");
+            toReplica.execute("runscript from '" + script + "'");
+            toReplica.executeUpdate("update member set username = 'replica-' || username");
+        }
+
+        assertThat(memberQueryRepository.findByTeamName("replicaTeam", MemberFetchPlan.NONE))
+                .extracting(Member::getName)
+                .containsExactly("replica-member1");
+    }
+
+    @Test
+    public void primaryPoolUsesHikariProperties() {
+        HikariDataSource primary = (HikariDataSource) dataSource.unwrap(ReadWriteRoutingDataSource.class)
+                .getResolvedDataSources().get("primary");
+        assertThat(primary.getMaximumPoolSize()).isEqualTo(3);
+    }
+
+    private String connectionUrl() {
+        return em.unwrap(Session.class).doReturningWork(connection -> connection.getMetaData().getURL());
+    }
+}
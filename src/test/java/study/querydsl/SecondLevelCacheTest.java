@@ -0,0 +1,171 @@
+package study.querydsl;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.service.BulkUpdateService;
+import study.querydsl.service.PersistenceContextSync;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+import static study.querydsl.query.QueryCacheHints.cacheable;
+
+/**
+ * 2차 캐시는 커밋 이후에 반영되므로 트랜잭션을 직접 나눠서 확인한다.
+ */
+@SpringBootTest
+public class SecondLevelCacheTest {
+    @Autowired EntityManager em;
+    @Autowired EntityManagerFactory emf;
+    @Autowired JPAQueryFactory query;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired BulkUpdateService bulkUpdateService;
+
+    TransactionTemplate tx;
+    Statistics statistics;
+    String name;
+    Long teamId;
+
+    @BeforeEach
+    public void before() {
+        tx = new TransactionTemplate(transactionManager);
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        name = "cache-" + UUID.randomUUID().toString().substring(0, 8);
+        teamId = tx.execute(s -> {
+            Team team = new Team(name);
+            em.persist(team);
+            return team.getId();
+        });
+    }
+
+    @AfterEach
+    public void after() {
+        tx.executeWithoutResult(s -> {
+            // 리스너(team_stats, 자동완성)를 거치도록 회원은 하나씩 지운다
+            query.selectFrom(member).where(member.name.startsWith(name)).fetch().forEach(em::remove);
+            em.flush();
+            query.delete(team).where(team.name.startsWith(name)).execute();
+        });
+    }
+
+    @Test
+    public void entityCacheHit() {
+        tx.executeWithoutResult(s -> em.find(Team.class, teamId)); // 캐시에 적재
+
+        long statements = statistics.getPrepareStatementCount();
+        String found = tx.execute(s -> em.find(Team.class, teamId).getName());
+
+        assertThat(found).isEqualTo(name);
+        assertThat(statistics.getPrepareStatementCount() - statements).isZero();
+    }
+
+    @Test
+    public void updateRefreshesCache() {
+        tx.executeWithoutResult(s -> em.find(Team.class, teamId).setName(name + "-renamed"));
+
+        long statements = statistics.getPrepareStatementCount();
+        String found = tx.execute(s -> em.find(Team.class, teamId).getName());
+
+        assertThat(found).isEqualTo(name + "-renamed");
+        assertThat(statistics.getPrepareStatementCount() - statements).isZero();
+    }
+
+    @Test
+    public void bulkUpdateEvictsRegion() {
+        tx.executeWithoutResult(s -> em.find(Team.class, teamId));
+        tx.executeWithoutResult(s -> query.update(team).set(team.name, name + "-bulk").where(team.id.eq(teamId)).execute());
+
+        long statements = statistics.getPrepareStatementCount();
+        String found = tx.execute(s -> em.find(Team.class, teamId).getName());
+
+        assertThat(found).isEqualTo(name + "-bulk");
+        assertThat(statistics.getPrepareStatementCount() - statements).isEqualTo(1);
+    }
+
+    @Test
+    public void nativeBulkDeleteKeepsTeamRegion() {
+        tx.executeWithoutResult(s -> em.find(Team.class, teamId));
+        tx.executeWithoutResult(s -> bulkUpdateService.deleteMembersOlderThan(10_000, PersistenceContextSync.CLEAR));
+
+        // address_entity 만 무효화되므로 team 은 캐시에서 읽는다
+        long statements = statistics.getPrepareStatementCount();
+        tx.executeWithoutResult(s -> em.find(Team.class, teamId));
+        assertThat(statistics.getPrepareStatementCount() - statements).isZero();
+    }
+
+    @Test
+    public void collectionCacheHit() {
+        addMember(teamId, name + "-member");
+        tx.executeWithoutResult(s -> em.find(Team.class, teamId).getMemberList().size()); // 컬렉션, 회원 적재
+
+        long statements = statistics.getPrepareStatementCount();
+        List<String> names = tx.execute(s -> em.find(Team.class, teamId).getMemberList().stream()
+                .map(Member::getName).toList());
+
+        assertThat(names).containsExactly(name + "-member");
+        // 팀, 회원 id 목록, 회원 모두 캐시에서
+        assertThat(statistics.getPrepareStatementCount() - statements).isZero();
+    }
+
+    @Test
+    public void memberTeamChangeEvictsCollection() {
+        Long memberId = addMember(teamId, name + "-member");
+        Long otherTeamId = tx.execute(s -> {
+            Team other = new Team(name + "-other");
+            em.persist(other);
+            return other.getId();
+        });
+        tx.executeWithoutResult(s -> em.find(Team.class, teamId).getMemberList().size());
+        tx.executeWithoutResult(s -> em.find(Team.class, otherTeamId).getMemberList().size());
+
+        // inverse 쪽(Member.team)만 바꿔도 auto_evict_collection_cache 가 양쪽 컬렉션을 비운다
+        tx.executeWithoutResult(s -> em.find(Member.class, memberId).setTeam(em.find(Team.class, otherTeamId)));
+
+        assertThat(tx.execute(s -> em.find(Team.class, teamId).getMemberList().size())).isZero();
+        assertThat(tx.execute(s -> em.find(Team.class, otherTeamId).getMemberList())).extracting("id")
+                .containsExactly(memberId);
+    }
+
+    @Test
+    public void queryCache() {
+        tx.executeWithoutResult(s -> findByName(name));
+
+        long statements = statistics.getPrepareStatementCount();
+        List<Team> cached = tx.execute(s -> findByName(name));
+        assertThat(cached).extracting("id").containsExactly(teamId);
+        assertThat(statistics.getPrepareStatementCount() - statements).isZero();
+
+        // team 테이블이 바뀌면 쿼리 캐시 무효화
+        tx.executeWithoutResult(s -> em.find(Team.class, teamId).setName(name + "-changed"));
+        statements = statistics.getPrepareStatementCount();
+        assertThat(tx.execute(s -> findByName(name))).isEmpty();
+        assertThat(statistics.getPrepareStatementCount() - statements).isEqualTo(1);
+    }
+
+    private Long addMember(Long teamId, String memberName) {
+        return tx.execute(s -> {
+            Member member = new Member(memberName, 20, em.find(Team.class, teamId));
+            em.persist(member);
+            return member.getId();
+        });
+    }
+
+    private List<Team> findByName(String teamName) {
+        return cacheable(query.selectFrom(team).where(team.name.eq(teamName))).fetch();
+    }
+}
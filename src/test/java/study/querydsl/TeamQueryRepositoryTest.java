@@ -0,0 +1,66 @@
+package study.querydsl;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.TeamMembersDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.paging.PageResult;
+import study.querydsl.repository.TeamQueryRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+public class TeamQueryRepositoryTest {
+    static final int MEMBERS_PER_TEAM = 10_000;
+
+    @Autowired EntityManager em;
+    @Autowired TeamQueryRepository teamQueryRepository;
+
+    List<Team> teams = new ArrayList<>();
+
+    @BeforeEach
+    public void before() {
+        for (int t = 0; t < 3; t++) {
+            Team team = new Team("bigTeam" + t);
+            em.persist(team);
+            teams.add(team);
+        }
+        int count = 0;
+        for (Team team : teams) {
+            for (int i = 0; i < MEMBERS_PER_TEAM; i++) {
+                em.persist(new Member(team.getName() + "-member" + i, i % 100, team));
+                if (++count % 1_000 == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void pageOfTeamsWithMembers() {
+        // 다른 테스트가 커밋한 팀이 있을 수 있으므로 이번에 만든 팀의 위치부터 조회
+        long total = teamQueryRepository.findTeamsWithMembers(0, 1).getTotal();
+        long offset = total - teams.size();
+
+        PageResult<TeamMembersDto> page = teamQueryRepository.findTeamsWithMembers(offset, 2);
+
+        assertThat(page.getResults()).extracting("teamName").containsExactly("bigTeam0", "bigTeam1");
+        for (TeamMembersDto dto : page.getResults()) {
+            assertThat(dto.getMembers()).hasSize(MEMBERS_PER_TEAM);
+            assertThat(dto.getMembers()).extracting("teamId").containsOnly(dto.getTeamId());
+        }
+        assertThat(page.getTotal()).isEqualTo(total);
+    }
+}
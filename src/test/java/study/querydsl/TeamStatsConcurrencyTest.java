@@ -0,0 +1,93 @@
+package study.querydsl;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.TeamStatsDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.TeamStatsRepository;
+import study.querydsl.service.TeamStatsService;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+
+/**
+ * 트랜잭션을 직접 나눠서 동시에 커밋하므로 @Transactional 을 붙이지 않고 직접 정리한다.
+ */
+@SpringBootTest
+public class TeamStatsConcurrencyTest {
+    @Autowired EntityManager em;
+    @Autowired JPAQueryFactory query;
+    @Autowired TeamStatsRepository teamStatsRepository;
+    @Autowired TeamStatsService teamStatsService;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    /**
+     * 두 트랜잭션이 같은 팀의 첫 회원을 동시에 추가한다.
+     * 두 번째는 첫 번째가 만든(커밋 전) team_stats 행에서 기다렸다가 키 중복 후 다시 갱신해야 하고, 회원 저장은 실패하지 않아야 한다.
+     */
+    @Test
+    public void concurrentFirstMembers() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        String name = "concurrent-" + UUID.randomUUID().toString().substring(0, 8);
+        Long teamId = tx.execute(s -> {
+            Team concurrent = new Team(name);
+            em.persist(concurrent);
+            return concurrent.getId();
+        });
+        CountDownLatch firstFlushed = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = pool.submit(() -> tx.executeWithoutResult(s -> {
+                em.persist(new Member(name, 10, em.getReference(Team.class, teamId)));
+                em.flush();
+                firstFlushed.countDown();
+                pause(300); // 두 번째 트랜잭션이 같은 키에서 기다리는 동안 커밋을 미룬다
+            }));
+            Future<?> second = pool.submit(() -> {
+                await(firstFlushed);
+                tx.executeWithoutResult(s -> em.persist(new Member(name, 30, em.getReference(Team.class, teamId))));
+            });
+            first.get(10, TimeUnit.SECONDS);
+            second.get(10, TimeUnit.SECONDS);
+
+            TeamStatsDto stats = teamStatsRepository.findByTeamName(name);
+            assertThat(stats.getMemberCount()).isEqualTo(2);
+            assertThat(stats.getAverageAge()).isEqualTo(20);
+            assertThat(stats.getMinAge()).isEqualTo(10);
+            assertThat(stats.getMaxAge()).isEqualTo(30);
+            assertThat(teamStatsService.findInconsistentTeams(List.of(teamId))).isEmpty();
+        } finally {
+            pool.shutdownNow();
+            tx.executeWithoutResult(s -> {
+                query.selectFrom(member).where(member.team.id.eq(teamId)).fetch().forEach(em::remove);
+                em.remove(em.find(Team.class, teamId));
+            });
+        }
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
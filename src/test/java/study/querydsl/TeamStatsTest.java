@@ -0,0 +1,144 @@
+package study.querydsl;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.TeamStatsDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.TeamStatsRepository;
+import study.querydsl.service.BulkUpdateService;
+import study.querydsl.service.PersistenceContextSync;
+import study.querydsl.service.TeamStatsService;
+import study.querydsl.sql.SqlMetricsRegistry;
+import study.querydsl.sql.SqlStatsView;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+
+@SpringBootTest
+@Transactional
+public class TeamStatsTest {
+    @Autowired EntityManager em;
+    @Autowired JPAQueryFactory query;
+    @Autowired TeamStatsRepository teamStatsRepository;
+    @Autowired TeamStatsService teamStatsService;
+    @Autowired BulkUpdateService bulkUpdateService;
+    @Autowired SqlMetricsRegistry sqlMetrics;
+
+    String teamAName;
+    String teamBName;
+    Team teamA;
+    Team teamB;
+    Member member1;
+    Member member4;
+
+    @BeforeEach
+    public void before() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        teamAName = "teamA-" + suffix;
+        teamBName = "teamB-" + suffix;
+        teamA = new Team(teamAName);
+        teamB = new Team(teamBName);
+        em.persist(teamA);
+        em.persist(teamB);
+        member1 = new Member("member1", 10, teamA);
+        em.persist(member1);
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        member4 = new Member("member4", 40, teamB);
+        em.persist(member4);
+        em.flush();
+    }
+
+    @Test
+    public void insert() {
+        // group 테스트와 같은 결과를 한 행 조회로
+        TeamStatsDto a = teamStatsRepository.findByTeamName(teamAName);
+        TeamStatsDto b = teamStatsRepository.findByTeamName(teamBName);
+
+        assertThat(a.getMemberCount()).isEqualTo(2);
+        assertThat(a.getAverageAge()).isEqualTo(15);
+        assertThat(b.getAverageAge()).isEqualTo(35);
+        assertThat(b.getMinAge()).isEqualTo(30);
+        assertThat(b.getMaxAge()).isEqualTo(40);
+    }
+
+    @Test
+    public void changeTeamAndAge() {
+        member4.ChangeTeam(teamA);
+        member1.setAge(15);
+        em.flush();
+
+        TeamStatsDto a = teamStatsRepository.findByTeamName(teamAName);
+        TeamStatsDto b = teamStatsRepository.findByTeamName(teamBName);
+        assertThat(a.getMemberCount()).isEqualTo(3);
+        assertThat(a.getMinAge()).isEqualTo(15);
+        assertThat(a.getMaxAge()).isEqualTo(40);
+        assertThat(b.getMemberCount()).isEqualTo(1);
+        assertThat(b.getMaxAge()).isEqualTo(30); // 최대값이 빠지면 다시 집계
+        assertThat(teamStatsService.findInconsistentTeams(List.of(teamA.getId(), teamB.getId()))).isEmpty();
+    }
+
+    @Test
+    public void delete() {
+        em.remove(member1);
+        em.flush();
+
+        TeamStatsDto a = teamStatsRepository.findByTeamName(teamAName);
+        assertThat(a.getMemberCount()).isEqualTo(1);
+        assertThat(a.getMinAge()).isEqualTo(20);
+    }
+
+    @Test
+    public void oneStatementPerTeamPerFlush() {
+        sqlMetrics.reset();
+        for (int i = 0; i < 20; i++) {
+            em.persist(new Member("member" + i, 50 + i, teamA));
+        }
+        em.remove(member4);
+        em.flush();
+
+        // member 배치는 끊기지 않고, team_stats 는 바뀐 팀마다 한 문장
+        long statsStatements = sqlMetrics.top(SqlMetricsRegistry.SortKey.COUNT, Integer.MAX_VALUE).stream()
+                .filter(s -> s.getFingerprint().startsWith("merge into team_stats "))
+                .mapToLong(SqlStatsView::getCount)
+                .sum();
+        assertThat(statsStatements).isEqualTo(2);
+
+        TeamStatsDto a = teamStatsRepository.findByTeamName(teamAName);
+        TeamStatsDto b = teamStatsRepository.findByTeamName(teamBName);
+        assertThat(a.getMemberCount()).isEqualTo(22);
+        assertThat(a.getMaxAge()).isEqualTo(69);
+        assertThat(b.getMemberCount()).isEqualTo(1);
+        assertThat(b.getMaxAge()).isEqualTo(30);
+        assertThat(teamStatsService.findInconsistentTeams(List.of(teamA.getId(), teamB.getId()))).isEmpty();
+    }
+
+    @Test
+    public void bulkUpdateRecomputes() {
+        bulkUpdateService.addAge(teamBName, 1, PersistenceContextSync.CLEAR);
+
+        assertThat(teamStatsRepository.findByTeamName(teamBName).getAverageAge()).isEqualTo(36);
+        assertThat(teamStatsService.findInconsistentTeams(List.of(teamB.getId()))).isEmpty();
+    }
+
+    @Test
+    public void overallMatchesAggregation() {
+        teamStatsService.rebuild();
+        TeamStatsDto overall = teamStatsRepository.overall();
+        Tuple actual = query.select(member.count(), member.age.max(), member.age.min()).from(member).fetchOne();
+
+        assertThat(overall.getMemberCount()).isEqualTo(actual.get(member.count()));
+        assertThat(overall.getMaxAge()).isEqualTo(actual.get(member.age.max()));
+        assertThat(overall.getMinAge()).isEqualTo(actual.get(member.age.min()));
+    }
+}
@@ -0,0 +1,112 @@
+package study.querydsl;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberRankDto;
+import study.querydsl.dto.MemberTeamAgeDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.QMember;
+import study.querydsl.entity.Team;
+import study.querydsl.query.WindowFunction;
+import study.querydsl.repository.MemberRankingRepository;
+
+import java.util.List;
+
+import static com.querydsl.jpa.JPAExpressions.select;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.within;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+@SpringBootTest
+@Transactional
+public class WindowFunctionTest {
+    @Autowired EntityManager em;
+    @Autowired JPAQueryFactory query;
+    @Autowired MemberRankingRepository rankingRepository;
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("windowA");
+        Team teamB = new Team("windowB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamA));
+        em.persist(new Member("member4", 40, teamB));
+        em.persist(new Member("member5", 50, teamB));
+        em.persist(new Member("member6", 50, teamB));
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void teamAverageMatchesCorrelatedSubQuery() {
+        QMember memberSub = new QMember("memberSub");
+        List<Tuple> expected = query
+                .select(member.name,
+                        select(memberSub.age.avg()).from(memberSub).where(memberSub.team.eq(member.team)))
+                .from(member)
+                .join(member.team, team)
+                .where(team.name.startsWith("window"))
+                .orderBy(member.id.asc())
+                .fetch();
+
+        List<MemberTeamAgeDto> result = rankingRepository.findWithTeamAverageAge().stream()
+                .filter(dto -> dto.getTeamName().startsWith("window"))
+                .toList();
+
+        assertThat(result).extracting("name").containsExactlyElementsOf(expected.stream().map(t -> t.get(member.name)).toList());
+        for (int i = 0; i < result.size(); i++) {
+            assertThat(result.get(i).getTeamAverageAge()).isCloseTo(expected.get(i).get(1, Double.class), within(1e-9));
+        }
+        assertThat(result.get(0).getTeamAverageAge()).isCloseTo(20.0, within(1e-9));
+        assertThat(result.get(3).getTeamAverageAge()).isCloseTo(140.0 / 3, within(1e-9));
+    }
+
+    @Test
+    public void overallAverageInOnePass() {
+        List<Double> averages = query
+                .select(WindowFunction.avg(member.age).build())
+                .from(member)
+                .where(member.team.name.startsWith("window"))
+                .fetch();
+
+        // over () 는 where 로 걸러진 행 전체가 대상
+        assertThat(averages).hasSize(6).allSatisfy(avg -> assertThat(avg).isCloseTo(200.0 / 6, within(1e-9)));
+    }
+
+    @Test
+    public void rowNumberPerTeam() {
+        List<Tuple> result = query
+                .select(member.name, WindowFunction.rowNumber().partitionBy(team.id).orderBy(member.age.desc(), member.id.asc()).build())
+                .from(member)
+                .join(member.team, team)
+                .where(team.name.startsWith("window"))
+                .orderBy(member.id.asc())
+                .fetch();
+
+        assertThat(result).extracting(t -> t.get(1, Long.class)).containsExactly(3L, 2L, 1L, 3L, 1L, 2L);
+    }
+
+    @Test
+    public void topByTeam() {
+        List<MemberRankDto> result = rankingRepository.findTopByTeam(1).stream()
+                .filter(dto -> dto.getTeamName().startsWith("window"))
+                .toList();
+
+        // 동점인 member5, member6 은 둘 다 1등
+        assertThat(result).extracting("teamName", "name", "rank").containsExactly(
+                tuple("windowA", "member3", 1L),
+                tuple("windowB", "member5", 1L),
+                tuple("windowB", "member6", 1L));
+    }
+}
@@ -0,0 +1,59 @@
+package study.querydsl.autocomplete;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NamePrefixIndexTest {
+
+    @Test
+    public void prefixLookupInNameOrder() {
+        NamePrefixIndex index = NamePrefixIndex.builder()
+                .add(3, "kim").add(1, "kimchi").add(2, "kim").add(4, "lee").add(5, "ki")
+                .build();
+
+        assertThat(index.topK("kim", 10)).containsExactly(
+                new NameMatch(2, "kim"), new NameMatch(3, "kim"), new NameMatch(1, "kimchi"));
+        assertThat(index.topK("ki", 2)).containsExactly(new NameMatch(5, "ki"), new NameMatch(2, "kim"));
+        assertThat(index.topK("park", 10)).isEmpty();
+        assertThat(index.stats().entries()).isEqualTo(5);
+        assertThat(index.stats().uniqueNames()).isEqualTo(4);
+    }
+
+    @Test
+    public void deltaAndTombstonesMergeWithBase() {
+        NamePrefixIndex index = NamePrefixIndex.builder().add(1, "kim").add(2, "kimchi").add(3, "lee").build();
+
+        index.add(4, "kima");
+        index.remove(1, "kim");
+        index.remove(3, "lee");
+        index.add(3, "kimb");
+        List<NameMatch> expected = List.of(new NameMatch(4, "kima"), new NameMatch(3, "kimb"), new NameMatch(2, "kimchi"));
+        assertThat(index.topK("kim", 10)).isEqualTo(expected);
+
+        // 같은 항목을 다시 넣어도 중복되지 않는다
+        index.add(2, "kimchi");
+        NamePrefixIndex compacted = index.compacted();
+        assertThat(compacted.topK("kim", 10)).isEqualTo(expected);
+        assertThat(compacted.stats().pendingAdds()).isZero();
+        assertThat(compacted.stats().pendingRemoves()).isZero();
+        assertThat(compacted.topK("lee", 10)).isEmpty();
+    }
+
+    @Test
+    public void replayedChangesAreIdempotent() {
+        NamePrefixIndex index = NamePrefixIndex.builder().add(1, "kim").add(2, "lee").build();
+        index.add(3, "kimchi");
+        index.remove(2, "lee");
+
+        // 병합 중에 들어와서 새 인덱스에 이미 들어갔을 수도 있는 변경을 다시 적용한다
+        NamePrefixIndex compacted = index.compacted();
+        compacted.add(3, "kimchi");
+        compacted.remove(2, "lee");
+
+        assertThat(compacted.topK("", 10)).containsExactly(new NameMatch(1, "kim"), new NameMatch(3, "kimchi"));
+        assertThat(index.stats().pendingAdds()).isEqualTo(1); // 원래 인덱스는 그대로
+    }
+}
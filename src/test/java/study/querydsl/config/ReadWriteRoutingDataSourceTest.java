@@ -0,0 +1,189 @@
+package study.querydsl.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ReadWriteRoutingDataSourceTest {
+
+    static final DataSource PRIMARY = h2("routing_primary");
+    static final DataSource REPLICA_A = h2("routing_replica_a");
+    static final DataSource REPLICA_B = h2("routing_replica_b");
+    static final DataSource DOWN = new DriverManagerDataSource("jdbc:h2:mem:routing_missing;IFEXISTS=TRUE", "sa", "");
+
+    @AfterEach
+    public void clear() {
+        TransactionSynchronizationManager.clear();
+    }
+
+    @Test
+    public void readOnlyGoesToReplica() throws SQLException {
+        ReadWriteRoutingDataSource routing = routing(List.of(REPLICA_A), Duration.ZERO);
+
+        assertThat(url(routing)).contains("routing_primary");
+        beginTransaction(false);
+        assertThat(url(routing)).contains("routing_primary");
+        beginTransaction(true);
+        assertThat(url(routing)).contains("routing_replica_a");
+    }
+
+    @Test
+    public void roundRobin() throws SQLException {
+        ReadWriteRoutingDataSource routing = routing(List.of(REPLICA_A, REPLICA_B), Duration.ZERO);
+        beginTransaction(true);
+
+        String first = url(routing);
+        String second = url(routing);
+        String third = url(routing);
+
+        assertThat(first).isNotEqualTo(second);
+        assertThat(third).isEqualTo(first);
+    }
+
+    @Test
+    public void leastLoaded() throws SQLException {
+        try (HikariDataSource replicaA = hikari("routing_replica_a");
+             HikariDataSource replicaB = hikari("routing_replica_b")) {
+            ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(PRIMARY, List.of(replicaA, replicaB),
+                    ReadWriteRoutingDataSource.Strategy.LEAST_LOADED, Duration.ZERO, Duration.ofMinutes(1));
+            beginTransaction(true);
+
+            // replica A 의 커넥션을 잡고 있는 동안에는 매번 B 로
+            try (Connection held = replicaA.getConnection()) {
+                assertThat(url(routing)).contains("routing_replica_b");
+                assertThat(url(routing)).contains("routing_replica_b");
+            }
+        }
+    }
+
+    @Test
+    public void readYourWrites() throws SQLException {
+        ReadWriteRoutingDataSource routing = routing(List.of(REPLICA_A), Duration.ofMinutes(1));
+        beginTransaction(true);
+        assertThat(url(routing)).contains("routing_replica_a");
+
+        beginTransaction(false);
+        url(routing);
+        beginTransaction(true);
+
+        assertThat(url(routing)).contains("routing_primary");
+    }
+
+    @Test
+    public void readYourWritesIsPerThread() throws Exception {
+        ReadWriteRoutingDataSource routing = routing(List.of(REPLICA_A), Duration.ofMinutes(1));
+        beginTransaction(false);
+        url(routing);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            String otherThread = executor.submit(() -> {
+                try {
+                    beginTransaction(true);
+                    return url(routing);
+                } finally {
+                    TransactionSynchronizationManager.clear();
+                }
+            }).get();
+            assertThat(otherThread).contains("routing_replica_a");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void unhealthyReplicaFallsBackToPrimary() throws SQLException {
+        ReadWriteRoutingDataSource routing = routing(List.of(DOWN, REPLICA_A), Duration.ZERO);
+        beginTransaction(true);
+
+        assertThat(List.of(url(routing), url(routing), url(routing), url(routing)))
+                .allMatch(url -> url.contains("routing_primary") || url.contains("routing_replica_a"))
+                .noneMatch(url -> url.contains("routing_missing"));
+        // 실패한 replica 는 retryAfter 동안 제외되므로 이후로는 살아 있는 replica 만
+        assertThat(url(routing)).contains("routing_replica_a");
+        assertThat(url(routing)).contains("routing_replica_a");
+    }
+
+    @Test
+    public void poolExhaustionDoesNotMarkReplicaDown() throws SQLException {
+        DataSource replica = mock(DataSource.class);
+        Connection replicaConnection = mock(Connection.class);
+        when(replica.getConnection())
+                .thenThrow(new SQLTransientConnectionException("replica-0 - Connection is not available, request timed out after 1000ms."))
+                .thenReturn(replicaConnection);
+        ReadWriteRoutingDataSource routing = routing(List.of(replica), Duration.ZERO);
+        beginTransaction(true);
+
+        assertThat(url(routing)).contains("routing_primary");
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    public void connectionFailureMarksReplicaDown() throws SQLException {
+        DataSource replica = mock(DataSource.class);
+        when(replica.getConnection())
+                .thenThrow(new SQLTransientConnectionException("replica-0 - Connection is not available, request timed out after 1000ms.",
+                        new SQLException("Connection refused")))
+                .thenReturn(mock(Connection.class));
+        ReadWriteRoutingDataSource routing = routing(List.of(replica), Duration.ZERO);
+        beginTransaction(true);
+
+        assertThat(url(routing)).contains("routing_primary");
+        assertThat(url(routing)).contains("routing_primary");
+    }
+
+    @Test
+    public void credentialsNotSupported() {
+        ReadWriteRoutingDataSource routing = routing(List.of(REPLICA_A), Duration.ZERO);
+
+        assertThatThrownBy(() -> routing.getConnection("sa", ""))
+                .isInstanceOf(SQLFeatureNotSupportedException.class);
+    }
+
+    private static ReadWriteRoutingDataSource routing(List<DataSource> replicas, Duration readYourWrites) {
+        return new ReadWriteRoutingDataSource(PRIMARY, replicas, ReadWriteRoutingDataSource.Strategy.ROUND_ROBIN,
+                readYourWrites, Duration.ofMinutes(1));
+    }
+
+    private static void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static String url(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    private static HikariDataSource hikari(String name) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        config.setMaximumPoolSize(2);
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,106 @@
+package study.querydsl.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * build/reports/load/{name}.json 에 결과를 남기고, 저장소에 둔 기준(src/test/resources/load/{name}-baseline.json)과 비교한다.
+ * 기준은 실행할 때마다 바뀌지 않는다. 장비나 데이터 크기가 바뀌면 결과 파일을 검토한 뒤 기준 파일로 복사해서 커밋한다.
+ * -Dbench.load.baseline=path 로 다른 기준 파일을 지정할 수도 있다.
+ */
+public final class LoadReport {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadReport.class);
+    private static final Path DIR = Path.of("build", "reports", "load");
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private LoadReport() {
+    }
+
+    public static Path write(String name, Map<String, Object> settings, List<ScenarioResult> results) throws IOException {
+        Files.createDirectories(DIR);
+        Path file = DIR.resolve(name + ".json");
+        MAPPER.writeValue(file.toFile(), Map.of(
+                "createdAt", Instant.now().toString(),
+                "settings", settings,
+                "results", results));
+        results.forEach(result -> log.info("{}", result));
+        log.info("load report: {}", file.toAbsolutePath());
+        return file;
+    }
+
+    /**
+     * @return 기준 결과. 기준 파일이 없거나 부하 설정(회원 수, 동시 요청 수, 실행 시간)이 달라 비교할 수 없으면 empty
+     */
+    public static Optional<List<ScenarioResult>> baseline(String name, Map<String, Object> settings) throws IOException {
+        JsonNode baseline = readBaseline(name);
+        if (baseline == null) {
+            log.warn("no load baseline for {}, commit a reviewed src/test/resources/load/{}-baseline.json", name, name);
+            return Optional.empty();
+        }
+        JsonNode baseSettings = baseline.path("settings");
+        JsonNode current = MAPPER.valueToTree(settings);
+        for (String key : List.of("/spec/members", "/concurrency", "/durationSeconds")) {
+            // 읽은 JSON 은 int, 설정 값은 long 일 수 있으므로 값으로 비교
+            if (!baseSettings.at(key).asText().equals(current.at(key).asText())) {
+                log.warn("load baseline for {} was taken with {}={}, skipping comparison", name, key, baseSettings.at(key));
+                return Optional.empty();
+            }
+        }
+        List<ScenarioResult> results = new ArrayList<>();
+        for (JsonNode result : baseline.path("results")) {
+            results.add(MAPPER.treeToValue(result, ScenarioResult.class));
+        }
+        return Optional.of(results);
+    }
+
+    /**
+     * 같은 이름의 시나리오끼리 p99 와 처리량을 비교한다. 기준에 없는 시나리오는 건너뛴다.
+     *
+     * @param tolerance 허용하는 상대 변화 (0.5 면 p99 는 1.5배, 처리량은 절반까지)
+     * @param slackMillis 1ms 안팎의 p99 가 흔들려서 실패하지 않도록 더해 주는 절대 여유
+     * @return 기준보다 나빠진 항목 설명
+     */
+    public static List<String> regressions(List<ScenarioResult> baseline, List<ScenarioResult> current,
+                                           double tolerance, double slackMillis) {
+        List<String> regressions = new ArrayList<>();
+        for (ScenarioResult result : current) {
+            baseline.stream().filter(base -> base.name().equals(result.name())).findFirst().ifPresent(base -> {
+                double p99Limit = base.p99() * (1 + tolerance) + slackMillis;
+                if (result.p99() > p99Limit) {
+                    regressions.add(String.format("%s p99 %.2fms > %.2fms (baseline %.2fms)",
+                            result.name(), result.p99(), p99Limit, base.p99()));
+                }
+                double throughputLimit = base.throughput() * (1 - tolerance);
+                if (result.throughput() < throughputLimit) {
+                    regressions.add(String.format("%s throughput %.1f req/s < %.1f req/s (baseline %.1f req/s)",
+                            result.name(), result.throughput(), throughputLimit, base.throughput()));
+                }
+            });
+        }
+        return regressions;
+    }
+
+    private static JsonNode readBaseline(String name) throws IOException {
+        String configured = System.getProperty("bench.load.baseline");
+        if (configured != null) {
+            return MAPPER.readTree(Path.of(configured).toFile());
+        }
+        try (InputStream in = LoadReport.class.getResourceAsStream("/load/" + name + "-baseline.json")) {
+            return in == null ? null : MAPPER.readTree(in);
+        }
+    }
+}
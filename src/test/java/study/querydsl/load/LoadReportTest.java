@@ -0,0 +1,37 @@
+package study.querydsl.load;
+
+import org.junit.jupiter.api.Test;
+import study.querydsl.service.LoadDataSpec;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LoadReportTest {
+
+    @Test
+    public void regressionsBeyondTolerance() {
+        List<ScenarioResult> baseline = List.of(
+                new ScenarioResult("a", 4, 1000, 0, 500, 2, 5, 10),
+                new ScenarioResult("b", 4, 1000, 0, 500, 2, 5, 10));
+        List<ScenarioResult> current = List.of(
+                new ScenarioResult("a", 4, 1000, 0, 300, 2, 5, 14),
+                new ScenarioResult("b", 4, 1000, 0, 200, 2, 5, 30),
+                new ScenarioResult("new", 4, 1000, 0, 1, 2, 5, 1000));
+
+        List<String> regressions = LoadReport.regressions(baseline, current, 0.5, 1);
+
+        assertThat(regressions).hasSize(2).allMatch(r -> r.startsWith("b "));
+    }
+
+    @Test
+    public void committedBaselineOnlyForSameSettings() throws IOException {
+        assertThat(LoadReport.baseline("full", Map.of("spec", LoadDataSpec.of(1_000_000), "concurrency", 16, "durationSeconds", 30)))
+                .hasValueSatisfying(baseline -> assertThat(baseline).extracting(ScenarioResult::name)
+                        .contains("members-of-team", "team-stats"));
+        assertThat(LoadReport.baseline("full", Map.of("spec", LoadDataSpec.of(5_000), "concurrency", 16, "durationSeconds", 30)))
+                .isEmpty();
+    }
+}
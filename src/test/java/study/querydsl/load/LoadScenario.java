@@ -0,0 +1,9 @@
+package study.querydsl.load;
+
+import java.util.function.Supplier;
+
+/**
+ * 부하 시나리오 하나. path 는 요청마다 새로 만든다 (파라미터를 섞기 위해).
+ */
+public record LoadScenario(String name, Supplier<String> path) {
+}
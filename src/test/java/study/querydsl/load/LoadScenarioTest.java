@@ -0,0 +1,102 @@
+package study.querydsl.load;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import study.querydsl.service.BulkProgressListener;
+import study.querydsl.service.LoadDataGenerator;
+import study.querydsl.service.LoadDataSpec;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 인메모리 H2 와 실제 HTTP 서버로 조회 API 에 부하를 걸고 p50/p95/p99, 처리량을 기록한다.
+ * <p>
+ * smoke 는 매 빌드(test)에서 작은 데이터로 돌고, full 은 ./gradlew benchmark -Dbench.load.members=3000000 처럼 돌린다.
+ * smoke 는 오류가 없는지만 본다. full 은 저장소에 둔 기준({@link LoadReport#baseline})보다
+ * p99/처리량이 bench.load.tolerance 이상 나빠지면 실패한다.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1",
+        "decorator.datasource.p6spy.enable-logging=false",
+        "n-plus-one.mode=off",
+        "lazy-load-guard.mode=fail",
+        "logging.level.study.querydsl=warn"})
+public class LoadScenarioTest {
+
+    @LocalServerPort int port;
+    @Autowired LoadDataGenerator generator;
+
+    @Test
+    public void smoke() throws Exception {
+        List<ScenarioResult> results = runAll("smoke", LoadDataSpec.of(5_000), 4, Duration.ofMillis(500), Duration.ofSeconds(2));
+        assertThat(results).allSatisfy(result -> {
+            assertThat(result.errors()).isZero();
+            assertThat(result.requests()).isPositive();
+        });
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void full() throws Exception {
+        LoadDataSpec spec = LoadDataSpec.of(Long.getLong("bench.load.members", 1_000_000));
+        int concurrency = Integer.getInteger("bench.load.concurrency", 16);
+        Duration duration = Duration.ofSeconds(Long.getLong("bench.load.seconds", 30));
+        double p99Budget = Double.parseDouble(System.getProperty("bench.load.p99-budget-ms", "5000"));
+
+        List<ScenarioResult> results = runAll("full", spec, concurrency, Duration.ofSeconds(5), duration);
+        assertThat(results).allSatisfy(result -> {
+            assertThat(result.errors()).isZero();
+            assertThat(result.p99()).isLessThan(p99Budget);
+        });
+        Optional<List<ScenarioResult>> baseline = LoadReport.baseline("full", settings(spec, concurrency, duration));
+        if (baseline.isPresent()) {
+            double tolerance = Double.parseDouble(System.getProperty("bench.load.tolerance", "0.5"));
+            assertThat(LoadReport.regressions(baseline.get(), results, tolerance, 5)).isEmpty();
+        }
+    }
+
+    private List<ScenarioResult> runAll(String name, LoadDataSpec spec, int concurrency, Duration warmup,
+                                        Duration duration) throws Exception {
+        long start = System.currentTimeMillis();
+        long rows = generator.generate(spec, BulkProgressListener.NONE);
+        long loadMillis = System.currentTimeMillis() - start;
+
+        int teams = spec.teams();
+        List<LoadScenario> scenarios = List.of(
+                new LoadScenario("members-of-team", () -> "/members?teamName=team" + ThreadLocalRandom.current().nextInt(teams)),
+                new LoadScenario("teams-page", () -> "/teams?limit=10&offset=" + ThreadLocalRandom.current().nextInt(teams)),
+                new LoadScenario("team-stats", () -> "/teams/stats"),
+                new LoadScenario("top-by-team", () -> "/members/top?n=3"));
+
+        ScenarioRunner runner = new ScenarioRunner("http://localhost:" + port);
+        List<ScenarioResult> results = new ArrayList<>();
+        for (LoadScenario scenario : scenarios) {
+            results.add(runner.run(scenario, concurrency, warmup, duration));
+        }
+
+        Map<String, Object> settings = settings(spec, concurrency, duration);
+        settings.put("rows", rows);
+        settings.put("loadMillis", loadMillis);
+        LoadReport.write(name, settings, results);
+        return results;
+    }
+
+    private static Map<String, Object> settings(LoadDataSpec spec, int concurrency, Duration duration) {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("spec", spec);
+        settings.put("concurrency", concurrency);
+        settings.put("durationSeconds", duration.toSeconds());
+        return settings;
+    }
+}
@@ -0,0 +1,120 @@
+package study.querydsl.load;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.querydsl.QuerydslApplication;
+import study.querydsl.service.BulkProgressListener;
+import study.querydsl.service.LoadDataGenerator;
+import study.querydsl.service.LoadDataSpec;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 같은 커넥션 풀 크기에서 open-in-view on/off 처리량 비교.
+ * OSIV 가 켜져 있으면 JSON 직렬화가 끝날 때까지 커넥션을 반납하지 않아 풀 대기가 생긴다.
+ * 직렬화 시간이 드러나도록 DTO 1000 건을 돌려주는 /members/search 를 쓰고,
+ * Hikari 의 커넥션 사용 시간(hikaricp.connections.usage)과 대기 시간(hikaricp.connections.acquire)을 비교한다.
+ * <p>
+ * ./gradlew benchmark -Dbench.osiv.pool-size=4 -Dbench.osiv.concurrency=32
+ */
+@Tag("benchmark")
+public class OsivThroughputTest {
+
+    private static final int PAGE_SIZE = 1_000;
+
+    @Test
+    public void throughputWithSamePoolSize() throws Exception {
+        int poolSize = Integer.getInteger("bench.osiv.pool-size", 4);
+        int concurrency = Integer.getInteger("bench.osiv.concurrency", 32);
+        long members = Long.getLong("bench.osiv.members", 100_000);
+        Duration duration = Duration.ofSeconds(Long.getLong("bench.osiv.seconds", 20));
+
+        List<ScenarioResult> results = new ArrayList<>();
+        Map<Boolean, PoolTimes> poolTimes = new LinkedHashMap<>();
+        for (boolean openInView : new boolean[]{true, false}) {
+            try (ConfigurableApplicationContext context = start(openInView, poolSize)) {
+                LoadDataSpec spec = LoadDataSpec.of(members);
+                context.getBean(LoadDataGenerator.class).generate(spec, BulkProgressListener.NONE);
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                int pages = (int) Math.max(1, members / PAGE_SIZE);
+                LoadScenario scenario = new LoadScenario("search-1000 osiv=" + openInView,
+                        () -> "/members/search?limit=" + PAGE_SIZE + "&offset="
+                                + ThreadLocalRandom.current().nextInt(Math.min(pages, 10)) * PAGE_SIZE);
+
+                // 데이터 적재에 쓴 커넥션은 빼고 부하 구간만 본다
+                MeterRegistry registry = context.getBean(MeterRegistry.class);
+                PoolTimes before = PoolTimes.of(registry);
+                results.add(new ScenarioRunner("http://localhost:" + port)
+                        .run(scenario, concurrency, Duration.ofSeconds(5), duration));
+                poolTimes.put(openInView, PoolTimes.of(registry).since(before));
+            }
+        }
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("poolSize", poolSize);
+        settings.put("concurrency", concurrency);
+        settings.put("members", members);
+        settings.put("poolTimes", poolTimes);
+        LoadReport.write("osiv", settings, results);
+        assertThat(results).allSatisfy(result -> assertThat(result.errors()).isZero());
+
+        PoolTimes osivOn = poolTimes.get(true);
+        PoolTimes osivOff = poolTimes.get(false);
+        // 직렬화하는 동안 커넥션을 쥐고 있으니 사용 시간이 길고, 그만큼 다른 요청이 풀에서 더 기다린다
+        assertThat(osivOff.usageMillis()).isLessThan(osivOn.usageMillis());
+        assertThat(osivOff.acquireMillis()).isLessThan(osivOn.acquireMillis());
+    }
+
+    /**
+     * 커넥션 하나당 평균 사용 시간과 평균 대기 시간 (ms)
+     */
+    record PoolTimes(long count, double usageTotalMillis, double acquireTotalMillis) {
+
+        static PoolTimes of(MeterRegistry registry) {
+            Timer usage = registry.get("hikaricp.connections.usage").timer();
+            Timer acquire = registry.get("hikaricp.connections.acquire").timer();
+            return new PoolTimes(usage.count(), usage.totalTime(TimeUnit.MILLISECONDS),
+                    acquire.totalTime(TimeUnit.MILLISECONDS));
+        }
+
+        PoolTimes since(PoolTimes before) {
+            return new PoolTimes(count - before.count, usageTotalMillis - before.usageTotalMillis,
+                    acquireTotalMillis - before.acquireTotalMillis);
+        }
+
+        double usageMillis() {
+            return count == 0 ? 0 : usageTotalMillis / count;
+        }
+
+        double acquireMillis() {
+            return count == 0 ? 0 : acquireTotalMillis / count;
+        }
+    }
+
+    private static ConfigurableApplicationContext start(boolean openInView, int poolSize) {
+        return new SpringApplicationBuilder(QuerydslApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:osiv" + openInView + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                        "spring.jpa.open-in-view=" + openInView,
+                        "decorator.datasource.p6spy.enable-logging=false",
+                        "n-plus-one.mode=off",
+                        "lazy-load-guard.mode=off",
+                        "logging.level.root=warn")
+                .run();
+    }
+}
@@ -0,0 +1,14 @@
+package study.querydsl.load;
+
+/**
+ * 지연시간 단위는 ms, 처리량은 초당 요청 수.
+ */
+public record ScenarioResult(String name, int concurrency, long requests, long errors,
+                             double throughput, double p50, double p95, double p99) {
+
+    @Override
+    public String toString() {
+        return String.format("%-20s c=%-3d req=%-8d err=%-5d %9.1f req/s  p50=%8.2fms p95=%8.2fms p99=%8.2fms",
+                name, concurrency, requests, errors, throughput, p50, p95, p99);
+    }
+}
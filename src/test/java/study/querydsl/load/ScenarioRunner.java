@@ -0,0 +1,88 @@
+package study.querydsl.load;
+
+import study.querydsl.sql.LatencyHistogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 닫힌 루프 부하 생성기. concurrency 개의 스레드가 응답을 받는 즉시 다음 요청을 보낸다.
+ * warmup 동안의 요청은 집계하지 않는다.
+ */
+public class ScenarioRunner {
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String baseUrl;
+
+    public ScenarioRunner(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public ScenarioResult run(LoadScenario scenario, int concurrency, Duration warmup, Duration duration)
+            throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        AtomicLong requests = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long deadline = measureFrom + duration.toNanos();
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        List<Future<?>> workers = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            workers.add(executor.submit(() -> {
+                long now;
+                while ((now = System.nanoTime()) < deadline) {
+                    boolean ok = send(scenario.path().get());
+                    long end = System.nanoTime();
+                    if (now >= measureFrom) {
+                        histogram.record((end - now) / 1_000);
+                        requests.incrementAndGet();
+                        if (!ok) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                }
+            }));
+        }
+        executor.shutdown();
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("load worker failed", e.getCause());
+            }
+        }
+        double seconds = duration.toNanos() / 1e9;
+        return new ScenarioResult(scenario.name(), concurrency, requests.get(), errors.get(),
+                requests.get() / seconds,
+                histogram.percentile(50) / 1_000.0,
+                histogram.percentile(95) / 1_000.0,
+                histogram.percentile(99) / 1_000.0);
+    }
+
+    private boolean send(String path) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() < 400;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package study.querydsl.sql;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactSqlLoggerTest {
+
+    @Test
+    public void singleLineJson() {
+        CompactSqlLogger.Entry entry = new CompactSqlLogger.Entry(3, 12_500_000,
+                "  select m.USERNAME\n   from member m\n  where m.USERNAME = 'a\"b'  ", null);
+
+        assertThat(CompactSqlLogger.format(entry)).isEqualTo(
+                "{\"elapsedMs\":12,\"connectionId\":3,\"sql\":\"select m.USERNAME from member m where m.USERNAME = 'a\\\"b'\"}");
+    }
+
+    @Test
+    public void error() {
+        CompactSqlLogger.Entry entry = new CompactSqlLogger.Entry(1, 0, "select 1", "Table \"X\" not found");
+
+        assertThat(CompactSqlLogger.format(entry)).endsWith(",\"error\":\"Table \\\"X\\\" not found\"}");
+    }
+}
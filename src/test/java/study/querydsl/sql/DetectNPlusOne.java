@@ -0,0 +1,17 @@
+package study.querydsl.sql;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.*;
+
+/**
+ * 테스트 메서드 안에서 같은 select 가 threshold 번을 넘게 실행되면 테스트를 실패시킨다.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@ExtendWith(NPlusOneExtension.class)
+public @interface DetectNPlusOne {
+    int threshold() default 5;
+}
@@ -0,0 +1,41 @@
+package study.querydsl.sql;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyHistogramTest {
+
+    @Test
+    public void latencyPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1_000L);
+        }
+
+        assertThat(histogram.percentile(50)).isBetween(50_000L, 50_000L * 5 / 4);
+        assertThat(histogram.percentile(99)).isBetween(99_000L, 99_000L * 5 / 4);
+        assertThat(new LatencyHistogram().percentile(99)).isZero();
+    }
+
+    @Test
+    public void bucketsCoverRecordedValue() {
+        for (long micros : new long[]{0, 1, 15, 16, 17, 100, 1_023, 1_024, 123_456_789}) {
+            int index = LatencyHistogram.index(micros);
+            assertThat(LatencyHistogram.upperBound(index)).isGreaterThanOrEqualTo(micros);
+            if (index > 0) {
+                assertThat(LatencyHistogram.upperBound(index - 1)).isLessThan(micros);
+            }
+        }
+    }
+
+    @Test
+    public void negativeAndHugeValuesAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        assertThat(histogram.percentile(50)).isZero();
+        assertThat(histogram.percentile(100)).isGreaterThan(1L << 40);
+    }
+}
@@ -0,0 +1,37 @@
+package study.querydsl.sql;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * {@link DetectNPlusOne} 이 붙은 테스트의 본문(@BeforeEach 데이터 준비 제외)에서 실행된 select 를 검사한다.
+ */
+public class NPlusOneExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        int threshold = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), DetectNPlusOne.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), DetectNPlusOne.class))
+                .map(DetectNPlusOne::threshold)
+                .orElse(5);
+        NPlusOneDetector.begin(context.getDisplayName(), threshold);
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        QueryScope scope = NPlusOneDetector.end();
+        if (scope == null) {
+            return;
+        }
+        List<NPlusOneViolation> violations = scope.getViolations();
+        if (!violations.isEmpty()) {
+            throw new AssertionError("N+1 detected in " + scope.getName() + ":\n  "
+                    + violations.stream().map(NPlusOneViolation::toString).collect(Collectors.joining("\n  ")));
+        }
+    }
+}
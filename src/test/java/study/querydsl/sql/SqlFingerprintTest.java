@@ -0,0 +1,20 @@
+package study.querydsl.sql;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlFingerprintTest {
+
+    @Test
+    public void stripLiterals() {
+        assertThat(SqlFingerprint.of("select m1_0.member_id from member m1_0\n where m1_0.age > 10 and m1_0.USERNAME = 'it''s'"))
+                .isEqualTo("select m1_0.member_id from member m1_0 where m1_0.age > ? and m1_0.username = ?");
+    }
+
+    @Test
+    public void collapseInList() {
+        assertThat(SqlFingerprint.of("select * from member where member_id in (1, 2, 3)"))
+                .isEqualTo(SqlFingerprint.of("select * from member where member_id in (?,?)"));
+    }
+}
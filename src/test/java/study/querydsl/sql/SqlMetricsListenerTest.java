@@ -0,0 +1,79 @@
+package study.querydsl.sql;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static study.querydsl.entity.QMember.member;
+
+/**
+ * p6spy 를 거쳐 실제로 실행된 SQL 이 fingerprint 별로 기록되는지 확인한다.
+ */
+@SpringBootTest
+@Transactional
+class SqlMetricsListenerTest {
+    @Autowired EntityManager em;
+    @Autowired JPAQueryFactory query;
+    @Autowired SqlMetricsRegistry registry;
+
+    @Test
+    public void batchInsertRows() {
+        registry.reset();
+        for (int i = 0; i < 3; i++) {
+            em.persist(new Member("sql-metrics", i));
+        }
+        em.flush();
+
+        SqlStatsView insert = find(f -> f.startsWith("insert into member "));
+        assertThat(insert.getRows()).isEqualTo(3);
+        assertThat(insert.getErrors()).isZero();
+    }
+
+    @Test
+    public void selectCountsFetchedRows() {
+        for (int i = 0; i < 3; i++) {
+            em.persist(new Member("sql-metrics", i));
+        }
+        em.flush();
+        em.clear();
+        registry.reset();
+
+        query.selectFrom(member).where(member.name.eq("sql-metrics")).fetch();
+        query.selectFrom(member).where(member.name.eq("sql-metrics")).fetch();
+
+        SqlStatsView select = find(f -> f.startsWith("select ") && f.contains(" from member ") && f.contains("username"));
+        assertThat(select.getCount()).isEqualTo(2);
+        assertThat(select.getRows()).isEqualTo(6);
+        assertThat(select.getFingerprint()).doesNotContain("sql-metrics");
+    }
+
+    @Test
+    public void failedStatementIsCountedAsError() {
+        em.persist(new Member("sql-metrics", 10));
+        em.flush();
+        registry.reset();
+        // 준비는 성공하고 실행 중에 실패하는 SQL (0 으로 나누기)
+        assertThatThrownBy(() -> em.createNativeQuery(
+                "select 1 / (metrics_error.age - metrics_error.age) from member metrics_error").getResultList())
+                .isInstanceOf(RuntimeException.class);
+
+        SqlStatsView failed = find(f -> f.contains("metrics_error"));
+        assertThat(failed.getCount()).isEqualTo(1);
+        assertThat(failed.getErrors()).isEqualTo(1);
+    }
+
+    private SqlStatsView find(Predicate<String> fingerprint) {
+        return registry.top(SqlMetricsRegistry.SortKey.COUNT, Integer.MAX_VALUE).stream()
+                .filter(view -> fingerprint.test(view.getFingerprint()))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("not recorded: " + registry.top(SqlMetricsRegistry.SortKey.COUNT, 20)));
+    }
+}
@@ -0,0 +1,68 @@
+package study.querydsl.sql;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlMetricsRegistryTest {
+
+    @Test
+    public void aggregatesByFingerprint() {
+        SqlMetricsRegistry registry = new SqlMetricsRegistry(10);
+        registry.record("select a", 2_000_000, false);
+        registry.record("select a", 4_000_000, true);
+        registry.addRows("select a", 7);
+
+        SqlStatsView view = registry.top(SqlMetricsRegistry.SortKey.COUNT, 10).get(0);
+        assertThat(view.getFingerprint()).isEqualTo("select a");
+        assertThat(view.getCount()).isEqualTo(2);
+        assertThat(view.getErrors()).isEqualTo(1);
+        assertThat(view.getRows()).isEqualTo(7);
+        assertThat(view.getTotalMicros()).isEqualTo(6_000);
+        assertThat(view.getMeanMicros()).isEqualTo(3_000);
+    }
+
+    @Test
+    public void sortAndLimit() {
+        SqlMetricsRegistry registry = new SqlMetricsRegistry(10);
+        // frequent: 자주 실행되지만 빠름, slow: 한 번이지만 느림
+        for (int i = 0; i < 10; i++) {
+            registry.record("frequent", 1_000, false);
+        }
+        registry.record("slow", 50_000_000, false);
+        registry.record("middle", 100_000, false);
+
+        assertThat(registry.top(SqlMetricsRegistry.SortKey.COUNT, 1))
+                .extracting(SqlStatsView::getFingerprint).containsExactly("frequent");
+        assertThat(registry.top(SqlMetricsRegistry.SortKey.P99, 2))
+                .extracting(SqlStatsView::getFingerprint).containsExactly("slow", "middle");
+        assertThat(registry.top(SqlMetricsRegistry.SortKey.TOTAL, 10)).hasSize(3);
+    }
+
+    @Test
+    public void overflowGoesToOther() {
+        SqlMetricsRegistry registry = new SqlMetricsRegistry(2);
+        registry.record("a", 1_000, false);
+        registry.record("b", 1_000, false);
+        registry.record("c", 1_000, false);
+        registry.record("d", 1_000, false);
+        registry.record("a", 1_000, false); // 이미 있는 fingerprint 는 그대로
+
+        List<SqlStatsView> top = registry.top(SqlMetricsRegistry.SortKey.COUNT, 10);
+        assertThat(top).extracting(SqlStatsView::getFingerprint)
+                .containsExactlyInAnyOrder("a", "b", SqlMetricsRegistry.OTHER);
+        assertThat(top).filteredOn(view -> view.getFingerprint().equals(SqlMetricsRegistry.OTHER))
+                .extracting(SqlStatsView::getCount).containsExactly(2L);
+    }
+
+    @Test
+    public void reset() {
+        SqlMetricsRegistry registry = new SqlMetricsRegistry(10);
+        registry.record("select a", 1_000, false);
+        registry.reset();
+
+        assertThat(registry.top(SqlMetricsRegistry.SortKey.TOTAL, 10)).isEmpty();
+    }
+}